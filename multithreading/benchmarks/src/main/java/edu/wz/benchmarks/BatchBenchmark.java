@@ -0,0 +1,77 @@
+package edu.wz.benchmarks;
+
+import edu.wz.producerconsumer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Values per microsecond one producer and one consumer move with putAll/drainTo in batches of {@code batch}
+ * values, a batch of one is the single element baseline.
+ * <p>
+ * putAll blocks until the whole batch is in, so the producer waits for free space itself and the consumer starts
+ * every drain with a timed poll; neither side hangs when the other one stops at the end of an iteration.
+ * Scores are operations, multiply by {@code batch} for values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class BatchBenchmark {
+
+    private static final Integer VALUE = 42;
+
+    @Param
+    private BufferType type;
+
+    @Param({"1024"})
+    private int capacity;
+
+    @Param({"1", "16", "256"})
+    private int batch;
+
+    private Buffer<Integer> buffer;
+    private List<Integer> values;
+
+    @Setup(Level.Iteration)
+    public void setUp(){
+        buffer = type.create(capacity);
+        values = Collections.nCopies(batch, VALUE);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public boolean putAll(Control control){
+        // the only producer, free space can only grow meanwhile, so putAll never waits once the batch fits
+        while(buffer.capacity() - buffer.size() < batch){
+            if(control.stopMeasurement) return false;
+            Thread.onSpinWait();
+        }
+        buffer.putAll(values);
+        return true;
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public int drainTo(Control control, Drained drained) throws InterruptedException {
+        Integer first = BufferBenchmark.get(buffer, control);
+        if(first == null) return 0;
+        drained.values.clear();
+        drained.values.add(first);
+        if(batch > 1 && buffer.size() > 0) buffer.drainTo(drained.values, batch - 1);
+        return drained.values.size();
+    }
+
+    @State(Scope.Thread)
+    public static class Drained {
+        private final List<Integer> values = new ArrayList<>();
+    }
+}
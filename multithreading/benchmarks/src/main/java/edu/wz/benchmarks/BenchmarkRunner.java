@@ -0,0 +1,31 @@
+package edu.wz.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and always writes machine readable results, {@code target/benchmarks.json} unless
+ * {@code -rff} says otherwise. Any other JMH option works as usual, e.g. to run the one to one group only:
+ * <pre>{@code
+ * java -jar target/benchmarks.jar "BufferBenchmark.oneToOne" -p capacity=16 -rff one-to-one.json
+ * }</pre>
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT = "target/benchmarks.json";
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(DEFAULT_RESULT))
+                .build();
+        new Runner(options).run();
+    }
+}
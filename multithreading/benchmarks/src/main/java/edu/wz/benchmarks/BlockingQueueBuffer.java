@@ -0,0 +1,92 @@
+package edu.wz.benchmarks;
+
+import edu.wz.producerconsumer.Buffer;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts a bounded {@link BlockingQueue} to {@link Buffer}, so the jdk queues are measured by the same benchmarks.
+ */
+public class BlockingQueueBuffer<T> implements Buffer<T> {
+
+    private final BlockingQueue<T> queue;
+    private final int capacity;
+
+    public BlockingQueueBuffer(BlockingQueue<T> queue){
+        if(queue.remainingCapacity() == Integer.MAX_VALUE) throw new IllegalArgumentException("Queue must be bounded");
+        this.queue = queue;
+        this.capacity = queue.size() + queue.remainingCapacity();
+    }
+
+    @Override
+    public void putValue(T value) {
+        try{
+            queue.put(value);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public T getValue() {
+        try{
+            return queue.take();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        for (T value : values) {
+            putValue(Objects.requireNonNull(value));
+        }
+    }
+
+    /**
+     * Waits for the first element only, then takes whatever else is there.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        target.add(getValue());
+        return 1 + queue.drainTo(target, max - 1);
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.offer(value, timeout, unit);
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        return queue.offer(value);
+    }
+
+    @Override
+    public T tryGet() {
+        return queue.poll();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,124 @@
+package edu.wz.benchmarks;
+
+import edu.wz.producerconsumer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of a single transfer for every producer/consumer ratio and capacity.
+ * <p>
+ * Producers and consumers of one group share a buffer. They use timed offer/poll, so waiting goes through
+ * the real blocking path of each buffer, yet nobody hangs when the other side stops at the end of an iteration.
+ * In sample time mode a put or get includes the time it waited, p99 of that is the latency we compare.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class BufferBenchmark {
+
+    private static final Integer VALUE = 42;
+    private static final long WAIT_MICROS = 100;
+
+    @Param
+    private BufferType type;
+
+    @Param({"1", "16", "1024"})
+    private int capacity;
+
+    private Buffer<Integer> buffer;
+
+    @Setup(Level.Iteration)
+    public void setUp(){
+        buffer = type.create(capacity);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public boolean oneToOnePut(Control control) throws InterruptedException {
+        return put(buffer, control);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public Integer oneToOneGet(Control control) throws InterruptedException {
+        return get(buffer, control);
+    }
+
+    @Benchmark
+    @Group("fourToOne")
+    @GroupThreads(4)
+    public boolean fourToOnePut(Control control) throws InterruptedException {
+        return put(buffer, control);
+    }
+
+    @Benchmark
+    @Group("fourToOne")
+    @GroupThreads(1)
+    public Integer fourToOneGet(Control control) throws InterruptedException {
+        return get(buffer, control);
+    }
+
+    @Benchmark
+    @Group("oneToFour")
+    @GroupThreads(1)
+    public boolean oneToFourPut(Control control) throws InterruptedException {
+        return put(buffer, control);
+    }
+
+    @Benchmark
+    @Group("oneToFour")
+    @GroupThreads(4)
+    public Integer oneToFourGet(Control control) throws InterruptedException {
+        return get(buffer, control);
+    }
+
+    @Benchmark
+    @Group("fourToFour")
+    @GroupThreads(4)
+    public boolean fourToFourPut(Control control) throws InterruptedException {
+        return put(buffer, control);
+    }
+
+    @Benchmark
+    @Group("fourToFour")
+    @GroupThreads(4)
+    public Integer fourToFourGet(Control control) throws InterruptedException {
+        return get(buffer, control);
+    }
+
+    @Benchmark
+    @Group("eightToEight")
+    @GroupThreads(8)
+    public boolean eightToEightPut(Control control) throws InterruptedException {
+        return put(buffer, control);
+    }
+
+    @Benchmark
+    @Group("eightToEight")
+    @GroupThreads(8)
+    public Integer eightToEightGet(Control control) throws InterruptedException {
+        return get(buffer, control);
+    }
+
+    static boolean put(Buffer<Integer> buffer, Control control) throws InterruptedException {
+        while(!buffer.offer(VALUE, WAIT_MICROS, TimeUnit.MICROSECONDS)){
+            if(control.stopMeasurement) return false;
+        }
+        return true;
+    }
+
+    static Integer get(Buffer<Integer> buffer, Control control) throws InterruptedException {
+        Integer value;
+        while((value = buffer.poll(WAIT_MICROS, TimeUnit.MICROSECONDS)) == null){
+            if(control.stopMeasurement) return null;
+        }
+        return value;
+    }
+}
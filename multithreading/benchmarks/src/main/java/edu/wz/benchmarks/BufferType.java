@@ -0,0 +1,33 @@
+package edu.wz.benchmarks;
+
+import edu.wz.producerconsumer.*;
+
+import java.util.Comparator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.IntFunction;
+
+/**
+ * Buffers that are safe for any number of producers and consumers, used as a benchmark parameter.
+ */
+public enum BufferType {
+    BUFFER_WITH_CAPACITY(BufferWithCapacity::new),
+    BUFFER_WITH_CAPACITY_USING_CONDITIONS(BufferWithCapacityUsingConditions::new),
+    BUFFER_WITH_TARGETED_WAKEUPS(BufferWithTargetedWakeups::new),
+    MPMC_RING_BUFFER(MpmcRingBuffer::new),
+    BUFFER_USING_SEMAPHORES(BufferUsingSemaphores::new),
+    SHARDED_BUFFER(ShardedBuffer::new),
+    PRIORITY_BUFFER(capacity -> new PriorityBuffer<>(capacity, Comparator.naturalOrder())),
+    ARRAY_BLOCKING_QUEUE(capacity -> new BlockingQueueBuffer<>(new ArrayBlockingQueue<>(capacity))),
+    LINKED_BLOCKING_QUEUE(capacity -> new BlockingQueueBuffer<>(new LinkedBlockingQueue<>(capacity)));
+
+    private final IntFunction<Buffer<Integer>> factory;
+
+    BufferType(IntFunction<Buffer<Integer>> factory){
+        this.factory = factory;
+    }
+
+    public Buffer<Integer> create(int capacity){
+        return factory.apply(capacity);
+    }
+}
@@ -0,0 +1,45 @@
+package edu.wz.benchmarks;
+
+import edu.wz.producerconsumer.Buffer;
+import edu.wz.producerconsumer.SpscRingBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SpscRingBuffer} allows one producer and one consumer only, so it gets the one to one group of
+ * {@link BufferBenchmark} and nothing else.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SpscBufferBenchmark {
+
+    @Param({"1", "16", "1024"})
+    private int capacity;
+
+    private Buffer<Integer> buffer;
+
+    @Setup(Level.Iteration)
+    public void setUp(){
+        buffer = new SpscRingBuffer<>(capacity);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public boolean oneToOnePut(Control control) throws InterruptedException {
+        return BufferBenchmark.put(buffer, control);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public Integer oneToOneGet(Control control) throws InterruptedException {
+        return BufferBenchmark.get(buffer, control);
+    }
+}
@@ -0,0 +1,46 @@
+package edu.wz.benchmarks;
+
+import edu.wz.producerconsumer.Buffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class BufferTypeTest {
+
+    /**
+     * Every benchmarked buffer honours its capacity and hands values over in order.
+     */
+    @ParameterizedTest
+    @EnumSource(BufferType.class)
+    public void createsBoundedBuffer(BufferType type) throws InterruptedException {
+        Buffer<Integer> buffer = type.create(2);
+        assertThat(buffer.capacity()).isEqualTo(2);
+        assertThat(buffer.tryPut(1)).isTrue();
+        assertThat(buffer.offer(2, 1, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(buffer.offer(3, 1, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(buffer.size()).isEqualTo(2);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(1, 2);
+        assertThat(buffer.poll(1, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    /**
+     * An unbounded queue would never make a producer wait, there is nothing to compare.
+     */
+    @Test
+    public void rejectsUnboundedQueue(){
+        assertThatThrownBy(() -> new BlockingQueueBuffer<>(new LinkedBlockingQueue<Integer>()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new BlockingQueueBuffer<>(new ArrayBlockingQueue<Integer>(5)).capacity()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,48 @@
+package edu.wz.producerconsumer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy for the lock-free buffers: spin first, then yield, then park for growing periods.
+ * There is nobody to wake a parked thread up, so parking is always time-bounded.
+ */
+final class Backoff {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long MIN_PARK_NANOS = 1_000;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private Backoff(){
+    }
+
+    /**
+     * Wraps an interrupt for the methods that can not throw a checked exception, keeping the interrupt status.
+     */
+    static RuntimeException interrupted(InterruptedException e){
+        Thread.currentThread().interrupt();
+        return new RuntimeException(e);
+    }
+
+    /**
+     * @param attempt how many times the caller already failed, starting with 0
+     * @return the value to pass as {@code attempt} next time
+     * @throws InterruptedException if the thread was interrupted, the interrupt status is cleared
+     */
+    static int idle(int attempt) throws InterruptedException {
+        if(attempt < SPIN_TRIES){
+            Thread.onSpinWait();
+        }
+        else if(attempt < YIELD_TRIES){
+            Thread.yield();
+        }
+        else{
+            int shift = Math.min(attempt - YIELD_TRIES, 10);
+            LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, MAX_PARK_NANOS));
+        }
+        if(Thread.interrupted()){
+            throw new InterruptedException();
+        }
+        return attempt + 1;
+    }
+}
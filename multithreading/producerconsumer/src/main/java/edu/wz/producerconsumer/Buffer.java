@@ -1,6 +1,64 @@
 package edu.wz.producerconsumer;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded buffer shared by producers and consumers. Null values are not accepted,
+ * null is what {@link #poll} and {@link #tryGet} return when there is nothing to take.
+ * <p>
+ * The blocking {@link #putValue}, {@link #getValue}, {@link #putAll} and {@link #drainTo} wait without a limit
+ * and report an interrupt as a {@link RuntimeException} with the interrupt status of the thread restored.
+ * Callers that need to give up or be cancelled should use the timed {@link #offer} and {@link #poll},
+ * which throw {@link InterruptedException} as is.
+ */
 public interface Buffer <T> {
     void putValue(T value);
     T getValue();
+
+    /**
+     * Puts every value into the buffer, blocking while it is full.
+     * Values are moved in chunks as large as the free space allows, each chunk wakes the consumers once.
+     */
+    void putAll(Collection<? extends T> values);
+
+    /**
+     * Blocks until at least one value is available, then moves as many values as are present, up to {@code max},
+     * into the target in one go.
+     * <p>
+     * If the target throws, the values it took so far stay in it and the rest stay in the buffer. The lock-free
+     * {@link MpmcRingBuffer} and {@link BufferUsingSemaphores} can not hold a value back once it is taken out,
+     * there the one value the target rejected is lost.
+     * @return how many values were moved, 0 only if {@code max} is not positive
+     */
+    int drainTo(Collection<? super T> target, int max);
+
+    /**
+     * Waits up to the timeout for free space.
+     * @return false if the buffer was still full when the timeout elapsed
+     */
+    boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Waits up to the timeout for a value.
+     * @return the value or null if the buffer was still empty when the timeout elapsed
+     */
+    T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * @return false right away if the buffer is full
+     */
+    boolean tryPut(T value);
+
+    /**
+     * @return the value or null right away if the buffer is empty
+     */
+    T tryGet();
+
+    /**
+     * Never takes a lock, so the value may already be outdated when other threads are working with the buffer.
+     */
+    int size();
+
+    int capacity();
 }
@@ -0,0 +1,28 @@
+package edu.wz.producerconsumer;
+
+import lombok.Value;
+
+/**
+ * Point-in-time view of an {@link InstrumentedBuffer}. Counters are read one after another while the buffer keeps
+ * working, so they may be a few operations apart from each other.
+ */
+@Value
+public class BufferMetrics {
+    int capacity;
+    int size;
+    int highWaterMark;
+    long puts;
+    long gets;
+    /**
+     * Total time producers spent waiting for free space, summed over all producer threads.
+     */
+    long producerBlockedNanos;
+    /**
+     * Total time consumers spent waiting for values, summed over all consumer threads.
+     */
+    long consumerBlockedNanos;
+    /**
+     * Time from handing a value to the buffer until a consumer got it, for a sample of the values.
+     */
+    LatencyHistogram.Snapshot latency;
+}
@@ -0,0 +1,212 @@
+package edu.wz.producerconsumer;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded buffer meant for virtual threads: no {@code synchronized}, no {@link Object#wait}, no lock held while waiting.
+ * <p>
+ * Free slots and available values are counted by two semaphores, a thread that has to wait parks inside the semaphore,
+ * which unmounts a virtual thread from its carrier instead of pinning it. Values are kept in a lock-free
+ * {@link MpmcRingBuffer}. A permit guarantees the slot (or the value) is already claimed by the other side,
+ * the only busy wait left is the few instructions until that thread publishes it.
+ */
+public class BufferUsingSemaphores<T> implements Buffer<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int SPIN_TRIES = 100;
+
+    private final MpmcRingBuffer<T> ring;
+    private final Semaphore freeSlots;
+    private final Semaphore values = new Semaphore(0);
+
+    public BufferUsingSemaphores(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BufferUsingSemaphores(int capacity){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        ring = new MpmcRingBuffer<>(capacity);
+        freeSlots = new Semaphore(capacity);
+    }
+
+    @Override
+    public void putValue(T value) {
+        Objects.requireNonNull(value);
+        try{
+            freeSlots.acquire();
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+        insert(value);
+        values.release();
+    }
+
+    @Override
+    public T getValue() {
+        try{
+            values.acquire();
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+        T value = remove();
+        freeSlots.release();
+        return value;
+    }
+
+    /**
+     * Takes the free slots that are there together and publishes them with one release,
+     * only waits when there is not a single free slot.
+     */
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        for (T value : values) {
+            Objects.requireNonNull(value);
+        }
+        int remaining = values.size();
+        int granted = 0;
+        int inserted = 0;
+        try{
+            for (T value : values) {
+                if(granted == 0){
+                    freeSlots.acquire();
+                    granted = 1 + acquireAvailable(freeSlots, remaining - 1);
+                }
+                insert(value);
+                granted--;
+                remaining--;
+                inserted++;
+                if(granted == 0){
+                    this.values.release(inserted);
+                    inserted = 0;
+                }
+            }
+            // the collection turned out shorter than its size() said
+            if(granted > 0){
+                this.values.release(inserted);
+                freeSlots.release(granted);
+            }
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    /**
+     * Frees all taken slots with one release, so producers waiting for several of them are woken at once.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        try{
+            values.acquire();
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+        int granted = 1 + acquireAvailable(values, max - 1);
+        int removed = 0;
+        try{
+            while(removed < granted){
+                T value = remove();
+                removed++;
+                target.add(value);
+            }
+        }
+        finally{
+            // if the target throws, values still in the ring keep their permits and removed ones free their slots
+            freeSlots.release(removed);
+            if(removed < granted) values.release(granted - removed);
+        }
+        return granted;
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        if(!freeSlots.tryAcquire(timeout, unit)) return false;
+        insert(value);
+        values.release();
+        return true;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if(!values.tryAcquire(timeout, unit)) return null;
+        T value = remove();
+        freeSlots.release();
+        return value;
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        if(!freeSlots.tryAcquire()) return false;
+        insert(value);
+        values.release();
+        return true;
+    }
+
+    @Override
+    public T tryGet() {
+        if(!values.tryAcquire()) return null;
+        T value = remove();
+        freeSlots.release();
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return ring.size();
+    }
+
+    @Override
+    public int capacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Takes up to {@code max} permits without waiting. Asks for as many as there are and asks for fewer when another
+     * thread got some first, it never holds permits it gives back, so a concurrent try call never fails for nothing.
+     */
+    private static int acquireAvailable(Semaphore semaphore, int max){
+        int wanted = Math.min(max, semaphore.availablePermits());
+        while(wanted > 0 && !semaphore.tryAcquire(wanted)){
+            wanted = Math.min(wanted - 1, semaphore.availablePermits());
+        }
+        return Math.max(wanted, 0);
+    }
+
+    private void insert(T value){
+        int attempt = 0;
+        while(!ring.tryPut(value)){
+            attempt = spin(attempt);
+        }
+    }
+
+    private T remove(){
+        int attempt = 0;
+        T value;
+        while((value = ring.tryGet()) == null){
+            attempt = spin(attempt);
+        }
+        return value;
+    }
+
+    /**
+     * The other side already holds the slot and is about to publish it, it only has to be given the chance to run.
+     */
+    private static int spin(int attempt){
+        if(attempt < SPIN_TRIES){
+            Thread.onSpinWait();
+        }
+        else{
+            Thread.yield();
+        }
+        return attempt + 1;
+    }
+}
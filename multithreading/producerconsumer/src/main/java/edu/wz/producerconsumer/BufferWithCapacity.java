@@ -1,7 +1,11 @@
 package edu.wz.producerconsumer;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 public class BufferWithCapacity <T> implements Buffer<T>{
 
@@ -10,6 +14,8 @@ public class BufferWithCapacity <T> implements Buffer<T>{
     private final int capacity;
 
     private Queue<T> buffer;
+    // mirrors buffer.size() for lock-free reads, written under the lock only
+    private volatile int count;
 
     public BufferWithCapacity(){
         this(DEFAULT_CAPACITY);
@@ -23,15 +29,18 @@ public class BufferWithCapacity <T> implements Buffer<T>{
 
     @Override
     public void putValue(T value) {
+        Objects.requireNonNull(value);
         synchronized (lock){
             while(buffer.size() == capacity){
                 try {
                     lock.wait();
                 } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                     throw new RuntimeException(e);
                 }
             }
             buffer.add(value);
+            count = buffer.size();
             lock.notifyAll();
         }
     }
@@ -43,11 +52,138 @@ public class BufferWithCapacity <T> implements Buffer<T>{
                 try {
                     lock.wait();
                 } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                     throw new RuntimeException(e);
                 }
             }
+            T value = buffer.poll();
+            count = buffer.size();
             lock.notifyAll();
-            return buffer.poll();
+            return value;
         }
     }
+
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        Iterator<? extends T> iterator = values.iterator();
+        synchronized (lock){
+            while(iterator.hasNext()){
+                while(buffer.size() == capacity){
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }
+                try{
+                    while(buffer.size() < capacity && iterator.hasNext()){
+                        buffer.add(Objects.requireNonNull(iterator.next()));
+                    }
+                }
+                finally{
+                    count = buffer.size();
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        synchronized (lock){
+            while(buffer.size() == 0){
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            int moved = 0;
+            try{
+                while(moved < max && !buffer.isEmpty()){
+                    target.add(buffer.peek());
+                    buffer.poll();
+                    moved++;
+                }
+            }
+            finally{
+                count = buffer.size();
+                lock.notifyAll();
+            }
+            return moved;
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        if(Thread.interrupted()) throw new InterruptedException();
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        synchronized (lock){
+            while(buffer.size() == capacity){
+                if(remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            buffer.add(value);
+            count = buffer.size();
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if(Thread.interrupted()) throw new InterruptedException();
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        synchronized (lock){
+            while(buffer.size() == 0){
+                if(remaining <= 0) return null;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            T value = buffer.poll();
+            count = buffer.size();
+            lock.notifyAll();
+            return value;
+        }
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        synchronized (lock){
+            if(buffer.size() == capacity) return false;
+            buffer.add(value);
+            count = buffer.size();
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    @Override
+    public T tryGet() {
+        synchronized (lock){
+            if(buffer.size() == 0) return null;
+            T value = buffer.poll();
+            count = buffer.size();
+            lock.notifyAll();
+            return value;
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
 }
@@ -1,7 +1,11 @@
 package edu.wz.producerconsumer;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -15,6 +19,8 @@ public class BufferWithCapacityUsingConditions<T> implements Buffer<T>{
     private final int capacity;
 
     private final Queue<T> buffer;
+    // mirrors buffer.size() for lock-free reads, written under the lock only
+    private volatile int count;
 
     public BufferWithCapacityUsingConditions(){
         this(DEFAULT_CAPACITY);
@@ -30,15 +36,18 @@ public class BufferWithCapacityUsingConditions<T> implements Buffer<T>{
 
     @Override
     public void putValue(T value) {
+        Objects.requireNonNull(value);
         try{
             lock.lock();
             while(buffer.size() == capacity){
                 readCondition.await();
             }
             buffer.add(value);
+            count = buffer.size();
             writeCondition.signal();
         }
         catch (InterruptedException e){
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
         finally{
@@ -54,14 +63,170 @@ public class BufferWithCapacityUsingConditions<T> implements Buffer<T>{
                 writeCondition.await();
             }
             T value = buffer.poll();
+            count = buffer.size();
             readCondition.signal();
             return value;
         }
         catch (InterruptedException e){
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
         finally{
             lock.unlock();
         }
     }
+
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        Iterator<? extends T> iterator = values.iterator();
+        try{
+            lock.lock();
+            while(iterator.hasNext()){
+                while(buffer.size() == capacity){
+                    readCondition.await();
+                }
+                int added = 0;
+                try{
+                    while(buffer.size() < capacity && iterator.hasNext()){
+                        buffer.add(Objects.requireNonNull(iterator.next()));
+                        added++;
+                    }
+                }
+                finally{
+                    count = buffer.size();
+                    signal(writeCondition, added);
+                }
+            }
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        try{
+            lock.lock();
+            while(buffer.size() == 0){
+                writeCondition.await();
+            }
+            int moved = 0;
+            try{
+                while(moved < max && !buffer.isEmpty()){
+                    target.add(buffer.peek());
+                    buffer.poll();
+                    moved++;
+                }
+            }
+            finally{
+                count = buffer.size();
+                signal(readCondition, moved);
+            }
+            return moved;
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            while(buffer.size() == capacity){
+                if(remaining <= 0) return false;
+                remaining = readCondition.awaitNanos(remaining);
+            }
+            buffer.add(value);
+            count = buffer.size();
+            writeCondition.signal();
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            while(buffer.size() == 0){
+                if(remaining <= 0) return null;
+                remaining = writeCondition.awaitNanos(remaining);
+            }
+            T value = buffer.poll();
+            count = buffer.size();
+            readCondition.signal();
+            return value;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        lock.lock();
+        try{
+            if(buffer.size() == capacity) return false;
+            buffer.add(value);
+            count = buffer.size();
+            writeCondition.signal();
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T tryGet() {
+        lock.lock();
+        try{
+            if(buffer.size() == 0) return null;
+            T value = buffer.poll();
+            count = buffer.size();
+            readCondition.signal();
+            return value;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * One waiter can take care of one changed element, several elements may need everybody.
+     */
+    private static void signal(Condition condition, int changed){
+        if(changed == 1){
+            condition.signal();
+        }
+        else if(changed > 1){
+            condition.signalAll();
+        }
+    }
 }
@@ -0,0 +1,329 @@
+package edu.wz.producerconsumer;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Alternative to {@link BufferWithCapacity} that does not wake everybody on every operation.
+ * Producers wait in a "not full" set and consumers in a "not empty" set. A put signals one consumer only when
+ * the buffer stops being empty, a get signals one producer only when the buffer stops being full.
+ * A thread that leaves values (or free slots) behind passes the signal on to the next waiting peer,
+ * so no waiter is forgotten when several operations happen before the first signalled thread runs.
+ * Threads that are already running take values and slots as they come, only idle waiters are woken.
+ * <p>
+ * Wakeup statistics are kept under the lock: how often threads blocked (each block costs a context switch away
+ * and one back), how many signals were sent and how many wakeups found the condition still false.
+ */
+public class BufferWithTargetedWakeups<T> implements Buffer<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final int capacity;
+
+    private final Queue<T> buffer;
+    // mirrors buffer.size() for lock-free reads, written under the lock only
+    private volatile int count;
+
+    private long contextSwitches;
+    private long signals;
+    private long spuriousWakeups;
+
+    public BufferWithTargetedWakeups(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BufferWithTargetedWakeups(int capacity){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        this.capacity = capacity;
+        buffer = new ArrayDeque<>(capacity);
+    }
+
+    @Override
+    public void putValue(T value) {
+        Objects.requireNonNull(value);
+        lock.lock();
+        try{
+            boolean waited = false;
+            while(buffer.size() == capacity){
+                if(waited) spuriousWakeups++;
+                awaitNotFull();
+                waited = true;
+            }
+            add(value);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T getValue() {
+        lock.lock();
+        try{
+            boolean waited = false;
+            while(buffer.isEmpty()){
+                if(waited) spuriousWakeups++;
+                awaitNotEmpty();
+                waited = true;
+            }
+            return take();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        Iterator<? extends T> iterator = values.iterator();
+        lock.lock();
+        try{
+            while(iterator.hasNext()){
+                boolean waited = false;
+                while(buffer.size() == capacity){
+                    if(waited) spuriousWakeups++;
+                    awaitNotFull();
+                    waited = true;
+                }
+                boolean wasEmpty = buffer.isEmpty();
+                try{
+                    while(buffer.size() < capacity && iterator.hasNext()){
+                        buffer.add(Objects.requireNonNull(iterator.next()));
+                    }
+                }
+                finally{
+                    count = buffer.size();
+                    if(wasEmpty) signalNotEmpty();
+                }
+            }
+            if(buffer.size() < capacity) signalNotFull();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        lock.lock();
+        try{
+            boolean waited = false;
+            while(buffer.isEmpty()){
+                if(waited) spuriousWakeups++;
+                awaitNotEmpty();
+                waited = true;
+            }
+            boolean wasFull = buffer.size() == capacity;
+            int moved = 0;
+            try{
+                while(moved < max && !buffer.isEmpty()){
+                    target.add(buffer.peek());
+                    buffer.poll();
+                    moved++;
+                }
+            }
+            finally{
+                count = buffer.size();
+                if(wasFull && moved > 0) signalNotFull();
+                if(!buffer.isEmpty()) signalNotEmpty();
+            }
+            return moved;
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            boolean waited = false;
+            while(buffer.size() == capacity){
+                if(remaining <= 0) return false;
+                if(waited) spuriousWakeups++;
+                remaining = awaitNotFull(remaining);
+                waited = true;
+            }
+            add(value);
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            boolean waited = false;
+            while(buffer.isEmpty()){
+                if(remaining <= 0) return null;
+                if(waited) spuriousWakeups++;
+                remaining = awaitNotEmpty(remaining);
+                waited = true;
+            }
+            return take();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        lock.lock();
+        try{
+            if(buffer.size() == capacity) return false;
+            add(value);
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T tryGet() {
+        lock.lock();
+        try{
+            return buffer.isEmpty() ? null : take();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return how many times a thread blocked waiting for space or values
+     */
+    public long getContextSwitches() {
+        lock.lock();
+        try{
+            return contextSwitches;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public long getSignals() {
+        lock.lock();
+        try{
+            return signals;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many times a woken thread found that it still could not proceed and had to wait again
+     */
+    public long getSpuriousWakeups() {
+        lock.lock();
+        try{
+            return spuriousWakeups;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    private void add(T value){
+        boolean wasEmpty = buffer.isEmpty();
+        buffer.add(value);
+        count = buffer.size();
+        if(wasEmpty) signalNotEmpty();
+        // a producer waiting since the buffer was full may not have been signalled for the slots left
+        if(buffer.size() < capacity) signalNotFull();
+    }
+
+    private T take(){
+        boolean wasFull = buffer.size() == capacity;
+        T value = buffer.poll();
+        count = buffer.size();
+        if(wasFull) signalNotFull();
+        // a consumer waiting since the buffer was empty may not have been signalled for the values left
+        if(!buffer.isEmpty()) signalNotEmpty();
+        return value;
+    }
+
+    /**
+     * Signals only threads that still sit in the wait set, a thread signalled earlier and not yet running
+     * is not in the set anymore.
+     */
+    private void signalNotFull(){
+        if(lock.hasWaiters(notFull)){
+            signals++;
+            notFull.signal();
+        }
+    }
+
+    private void signalNotEmpty(){
+        if(lock.hasWaiters(notEmpty)){
+            signals++;
+            notEmpty.signal();
+        }
+    }
+
+    private void awaitNotFull() throws InterruptedException {
+        contextSwitches++;
+        notFull.await();
+    }
+
+    private long awaitNotFull(long nanos) throws InterruptedException {
+        contextSwitches++;
+        return notFull.awaitNanos(nanos);
+    }
+
+    private void awaitNotEmpty() throws InterruptedException {
+        contextSwitches++;
+        notEmpty.await();
+    }
+
+    private long awaitNotEmpty(long nanos) throws InterruptedException {
+        contextSwitches++;
+        return notEmpty.awaitNanos(nanos);
+    }
+}
@@ -0,0 +1,343 @@
+package edu.wz.producerconsumer;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that measures any buffer: occupancy and its high-water mark, put/get counts, time producers spent
+ * waiting on a full buffer, time consumers spent waiting on an empty one, and the latency from enqueue to dequeue.
+ * <p>
+ * Counters are {@link LongAdder}s so that producers and consumers do not start contending on the metrics.
+ * Every operation is tried without waiting first, only when that fails the blocking call is timed.
+ * Values go to the delegate as they are, so a transfer allocates nothing and delegates that look at the values,
+ * like a {@link PriorityBuffer}, see the real ones:
+ * <pre>{@code
+ * InstrumentedBuffer<Integer> buffer = new InstrumentedBuffer<>(new BufferWithCapacity<>(10));
+ * }</pre>
+ * Latency is measured for a sample of the values: each producer thread picks about one value in
+ * {@code samplePeriod} at random and notes its enqueue time in a table, see {@link Samples}, the consumer that
+ * takes that very value records how long it was inside. Pairing goes by the identity of the value, not by order,
+ * so it holds for any delegate, and a put that fails leaves nothing behind that could skew later samples.
+ * The enqueue time is taken when the put starts, blocked time included. An object put again while an earlier
+ * copy is still inside may be charged with the enqueue time of the other copy.
+ */
+public class InstrumentedBuffer<T> implements Buffer<T> {
+
+    private static final int DEFAULT_SAMPLE_PERIOD = 16;
+
+    private final Buffer<T> delegate;
+    private final int samplePeriod;
+
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder gets = new LongAdder();
+    private final LongAdder producerBlockedNanos = new LongAdder();
+    private final LongAdder consumerBlockedNanos = new LongAdder();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Samples samples = new Samples();
+
+    public InstrumentedBuffer(Buffer<T> delegate){
+        this(delegate, DEFAULT_SAMPLE_PERIOD);
+    }
+
+    /**
+     * @param samplePeriod on average one value in this many is timed, 1 times every value
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public InstrumentedBuffer(Buffer<T> delegate, int samplePeriod){
+        if(samplePeriod <= 0) throw new IllegalArgumentException("Sample period must be positive");
+        this.delegate = Objects.requireNonNull(delegate);
+        this.samplePeriod = samplePeriod;
+    }
+
+    @Override
+    public void putValue(T value) {
+        Objects.requireNonNull(value);
+        long start = System.nanoTime();
+        boolean sampled = sample(value, start);
+        try{
+            if(!delegate.tryPut(value)){
+                try{
+                    delegate.putValue(value);
+                }
+                finally{
+                    producerBlockedNanos.add(System.nanoTime() - start);
+                }
+            }
+        }
+        catch (RuntimeException e){
+            if(sampled) samples.remove(value);
+            throw e;
+        }
+        afterPut(1);
+    }
+
+    @Override
+    public T getValue() {
+        T value = delegate.tryGet();
+        if(value == null){
+            long start = System.nanoTime();
+            try{
+                value = delegate.getValue();
+            }
+            finally{
+                consumerBlockedNanos.add(System.nanoTime() - start);
+            }
+        }
+        afterGet(value);
+        return value;
+    }
+
+    /**
+     * The whole call is counted as blocked time when the values did not fit into the free space at the start.
+     * The delegate may hand out the first values while it still waits for space for the others, so they are all
+     * sampled before they go in.
+     */
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        List<? extends T> list = values instanceof List<? extends T> l ? l : new ArrayList<>(values);
+        for (T value : list) {
+            Objects.requireNonNull(value);
+        }
+        long start = System.nanoTime();
+        boolean fits = delegate.capacity() - delegate.size() >= list.size();
+        for (T value : list) {
+            sample(value, start);
+        }
+        try{
+            delegate.putAll(list);
+        }
+        catch (RuntimeException e){
+            // values that did go in lose their samples too, that is only a smaller sample
+            for (T value : list) {
+                samples.remove(value);
+            }
+            throw e;
+        }
+        finally{
+            if(!fits) producerBlockedNanos.add(System.nanoTime() - start);
+        }
+        afterPut(list.size());
+    }
+
+    /**
+     * The whole call is counted as blocked time when the buffer was empty at the start.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        Taking taking = new Taking(target);
+        boolean empty = delegate.size() == 0;
+        long start = System.nanoTime();
+        try{
+            return delegate.drainTo(taking, max);
+        }
+        finally{
+            if(empty) consumerBlockedNanos.add(System.nanoTime() - start);
+            gets.add(taking.added);
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        long start = System.nanoTime();
+        boolean sampled = sample(value, start);
+        boolean put;
+        try{
+            put = delegate.tryPut(value);
+            if(!put){
+                try{
+                    put = delegate.offer(value, timeout, unit);
+                }
+                finally{
+                    producerBlockedNanos.add(System.nanoTime() - start);
+                }
+            }
+        }
+        catch (InterruptedException | RuntimeException e){
+            if(sampled) samples.remove(value);
+            throw e;
+        }
+        if(!put){
+            if(sampled) samples.remove(value);
+            return false;
+        }
+        afterPut(1);
+        return true;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T value = delegate.tryGet();
+        if(value == null){
+            long start = System.nanoTime();
+            try{
+                value = delegate.poll(timeout, unit);
+            }
+            finally{
+                consumerBlockedNanos.add(System.nanoTime() - start);
+            }
+            if(value == null) return null;
+        }
+        afterGet(value);
+        return value;
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        boolean sampled = sample(Objects.requireNonNull(value), System.nanoTime());
+        if(!delegate.tryPut(value)){
+            if(sampled) samples.remove(value);
+            return false;
+        }
+        afterPut(1);
+        return true;
+    }
+
+    @Override
+    public T tryGet() {
+        T value = delegate.tryGet();
+        if(value != null) afterGet(value);
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int capacity() {
+        return delegate.capacity();
+    }
+
+    public BufferMetrics metrics(){
+        return new BufferMetrics(
+                delegate.capacity(),
+                delegate.size(),
+                highWaterMark.get(),
+                puts.sum(),
+                gets.sum(),
+                producerBlockedNanos.sum(),
+                consumerBlockedNanos.sum(),
+                latency.snapshot());
+    }
+
+    private void afterPut(int count){
+        puts.add(count);
+        int size = delegate.size();
+        // a plain read first, the shared mark is written only when it really grows
+        if(size > highWaterMark.get()){
+            highWaterMark.accumulateAndGet(size, Math::max);
+        }
+    }
+
+    private void afterGet(T value){
+        gets.increment();
+        samples.take(value, System.nanoTime());
+    }
+
+    private boolean sample(T value, long time){
+        if(samplePeriod > 1 && ThreadLocalRandom.current().nextInt(samplePeriod) != 0) return false;
+        return samples.add(value, time);
+    }
+
+    /**
+     * Enqueue times of the sampled values that are still inside, looked up by the identity of the value.
+     * A value may sit in one of {@link #PROBES} slots after the one its identity hash picks; a put claims a free one
+     * with a compare-and-set, a get frees the one holding its value. Threads only touch the same slot when their
+     * values hash next to each other, and nobody ever waits: a value that finds no free slot is not sampled.
+     */
+    private final class Samples {
+        private static final int SLOTS = 1 << 12;
+        private static final int PROBES = 4;
+        private static final Object CLAIMED = new Object();
+
+        private final AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(SLOTS);
+        // written by the thread that claimed the slot, published by the release of the value
+        private final long[] times = new long[SLOTS];
+
+        private boolean add(Object value, long time){
+            int hash = System.identityHashCode(value);
+            for (int probe = 0; probe < PROBES; probe++) {
+                int slot = (hash + probe) & (SLOTS - 1);
+                if(values.get(slot) == null && values.compareAndSet(slot, null, CLAIMED)){
+                    times[slot] = time;
+                    values.setRelease(slot, value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records the latency of the value if it was sampled.
+         */
+        private void take(Object value, long now){
+            int hash = System.identityHashCode(value);
+            for (int probe = 0; probe < PROBES; probe++) {
+                int slot = (hash + probe) & (SLOTS - 1);
+                if(values.getAcquire(slot) == value){
+                    // the slot can not be claimed again before the compare-and-set below frees it
+                    long time = times[slot];
+                    if(values.compareAndSet(slot, value, null)){
+                        latency.record(now - time);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Forgets the value without recording it, for a put that failed.
+         */
+        private void remove(Object value){
+            int hash = System.identityHashCode(value);
+            for (int probe = 0; probe < PROBES; probe++) {
+                if(values.compareAndSet((hash + probe) & (SLOTS - 1), value, null)) return;
+            }
+        }
+    }
+
+    /**
+     * Counts what a drain added to the target, also when the target throws halfway, and records the latencies.
+     * The time is read once, when the first value arrives.
+     */
+    private final class Taking extends AbstractCollection<T> {
+        private final Collection<? super T> target;
+        private int added;
+        private long now;
+
+        private Taking(Collection<? super T> target){
+            this.target = target;
+        }
+
+        @Override
+        public boolean add(T value) {
+            boolean changed = target.add(value);
+            if(added++ == 0) now = System.nanoTime();
+            samples.take(value, now);
+            return changed;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int size() {
+            return added;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package edu.wz.producerconsumer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking and timed operations of the lock-free buffers, built on their non-blocking {@link #tryPut} and
+ * {@link #tryGet}: a failed attempt is retried after {@link Backoff#idle}, there is nobody to wake a waiting thread.
+ */
+abstract class LockFreeBuffer<T> implements Buffer<T> {
+
+    @Override
+    public void putValue(T value) {
+        Objects.requireNonNull(value);
+        int attempt = 0;
+        try{
+            while(!tryPut(value)){
+                attempt = Backoff.idle(attempt);
+            }
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    @Override
+    public T getValue() {
+        int attempt = 0;
+        try{
+            T value;
+            while((value = tryGet()) == null){
+                attempt = Backoff.idle(attempt);
+            }
+            return value;
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        if(Thread.interrupted()) throw new InterruptedException();
+        long remaining = unit.toNanos(timeout);
+        long start = System.nanoTime();
+        int attempt = 0;
+        while(!tryPut(value)){
+            if(System.nanoTime() - start >= remaining) return false;
+            attempt = Backoff.idle(attempt);
+        }
+        return true;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if(Thread.interrupted()) throw new InterruptedException();
+        long remaining = unit.toNanos(timeout);
+        long start = System.nanoTime();
+        int attempt = 0;
+        T value;
+        while((value = tryGet()) == null){
+            if(System.nanoTime() - start >= remaining) return null;
+            attempt = Backoff.idle(attempt);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,213 @@
+package edu.wz.producerconsumer;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded buffer of {@code long} values with the blocking semantics of {@link BufferWithCapacity}.
+ * Values are kept in a preallocated ring array, so a transfer neither boxes nor allocates a node.
+ * <p>
+ * There is no {@code null} for "nothing arrived", so non-blocking and timed reads copy into the caller's array
+ * and return how many values they copied, {@code 0} meaning none.
+ * <p>
+ * Waiters are notified only when the buffer leaves the state they wait for: consumers wait on an empty buffer
+ * and are woken by the put that makes it non-empty, producers wait on a full one and are woken by the get that frees a slot.
+ */
+public class LongBuffer {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private final Object lock = new Object();
+    private final int capacity;
+
+    private final long[] elements;
+    private int head;
+    // mirrors the element count for lock-free reads, written under the lock only
+    private volatile int count;
+
+    public LongBuffer(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongBuffer(int capacity){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        this.capacity = capacity;
+        elements = new long[capacity];
+    }
+
+    public void putValue(long value) {
+        synchronized (lock){
+            while(count == capacity){
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            add(value);
+        }
+    }
+
+    public long getValue() {
+        synchronized (lock){
+            while(count == 0){
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            return take();
+        }
+    }
+
+    /**
+     * Puts {@code length} values starting at {@code offset}, waiting for free slots as many times as it takes.
+     */
+    public void putAll(long[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int end = offset + length;
+        synchronized (lock){
+            while(offset < end){
+                while(count == capacity){
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                }
+                boolean wasEmpty = count == 0;
+                int moved = Math.min(end - offset, capacity - count);
+                int tail = index(head + count);
+                int first = Math.min(moved, capacity - tail);
+                System.arraycopy(values, offset, elements, tail, first);
+                System.arraycopy(values, offset + first, elements, 0, moved - first);
+                offset += moved;
+                count += moved;
+                if(wasEmpty) lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until at least one value is available, then copies up to {@code max} values into {@code target}.
+     * @return number of values copied
+     */
+    public int drainTo(long[] target, int offset, int max) {
+        Objects.checkFromIndexSize(offset, max, target.length);
+        if(max <= 0) return 0;
+        synchronized (lock){
+            while(count == 0){
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            return copyOut(target, offset, max);
+        }
+    }
+
+    /**
+     * @return {@code false} if the buffer stayed full for the whole timeout
+     */
+    public boolean offer(long value, long timeout, TimeUnit unit) throws InterruptedException {
+        if(Thread.interrupted()) throw new InterruptedException();
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        synchronized (lock){
+            while(count == capacity){
+                if(remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            add(value);
+            return true;
+        }
+    }
+
+    /**
+     * Timed {@link #drainTo(long[], int, int)}.
+     * @return number of values copied, {@code 0} if the buffer stayed empty for the whole timeout
+     */
+    public int poll(long[] target, int offset, int max, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.checkFromIndexSize(offset, max, target.length);
+        if(Thread.interrupted()) throw new InterruptedException();
+        if(max <= 0) return 0;
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        synchronized (lock){
+            while(count == 0){
+                if(remaining <= 0) return 0;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return copyOut(target, offset, max);
+        }
+    }
+
+    public boolean tryPut(long value) {
+        synchronized (lock){
+            if(count == capacity) return false;
+            add(value);
+            return true;
+        }
+    }
+
+    /**
+     * Copies whatever is available right now, up to {@code max} values.
+     * @return number of values copied, {@code 0} if the buffer was empty
+     */
+    public int tryGet(long[] target, int offset, int max) {
+        Objects.checkFromIndexSize(offset, max, target.length);
+        if(max <= 0) return 0;
+        synchronized (lock){
+            if(count == 0) return 0;
+            return copyOut(target, offset, max);
+        }
+    }
+
+    /**
+     * Never takes a lock, the value may be stale by the time the caller looks at it.
+     */
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void add(long value){
+        elements[index(head + count)] = value;
+        count++;
+        if(count == 1) lock.notifyAll();
+    }
+
+    private long take(){
+        long value = elements[head];
+        head = index(head + 1);
+        count--;
+        if(count == capacity - 1) lock.notifyAll();
+        return value;
+    }
+
+    private int copyOut(long[] target, int offset, int max){
+        boolean wasFull = count == capacity;
+        int moved = Math.min(max, count);
+        int first = Math.min(moved, capacity - head);
+        System.arraycopy(elements, head, target, offset, first);
+        System.arraycopy(elements, 0, target, offset + first, moved - first);
+        head = index(head + moved);
+        count -= moved;
+        if(wasFull) lock.notifyAll();
+        return moved;
+    }
+
+    private int index(int position){
+        return position < capacity ? position : position - capacity;
+    }
+}
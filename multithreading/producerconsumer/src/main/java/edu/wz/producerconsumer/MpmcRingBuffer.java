@@ -0,0 +1,128 @@
+package edu.wz.producerconsumer;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free buffer for any number of producers and consumers (Dmitry Vyukov's bounded MPMC queue).
+ * Every slot carries a sequence number that tells whether the slot is ready to be written or read for a given lap,
+ * producers and consumers claim positions with a CAS on the padded tail/head and never block each other.
+ * Position {@code p} waits for {@code 2p} to write and {@code 2p + 1} to read, doubling keeps the two states apart
+ * even when the capacity is one.
+ * Slots and their sequences are preallocated, so a transfer allocates nothing.
+ */
+public class MpmcRingBuffer<T> extends LockFreeBuffer<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final int mask;
+
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+
+    public MpmcRingBuffer(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MpmcRingBuffer(int capacity){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        this.capacity = capacity;
+        this.mask = Integer.bitCount(capacity) == 1 ? capacity - 1 : -1;
+        elements = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, 2L * i);
+        }
+    }
+
+    /**
+     * There is no lock to amortize, so values are claimed one slot at a time.
+     */
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        for (T value : values) {
+            putValue(value);
+        }
+    }
+
+    /**
+     * Takes values one slot at a time, like {@link #putAll}. A value leaves the ring before the target gets it,
+     * its slot may be reused right away, so a value the target rejects can not be put back and is lost.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        target.add(getValue());
+        int moved = 1;
+        T value;
+        while(moved < max && (value = tryGet()) != null){
+            target.add(value);
+            moved++;
+        }
+        return moved;
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        while(true){
+            long position = tail.get();
+            int index = index(position);
+            long difference = sequences.getAcquire(index) - 2 * position;
+            if(difference == 0){
+                if(tail.compareAndSet(position, position + 1)){
+                    elements[index] = value;
+                    sequences.setRelease(index, 2 * position + 1);
+                    return true;
+                }
+            }
+            else if(difference < 0){
+                // the slot still holds a value from the previous lap, buffer is full
+                return false;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T tryGet() {
+        while(true){
+            long position = head.get();
+            int index = index(position);
+            long difference = sequences.getAcquire(index) - (2 * position + 1);
+            if(difference == 0){
+                if(head.compareAndSet(position, position + 1)){
+                    T value = (T) elements[index];
+                    elements[index] = null;
+                    sequences.setRelease(index, 2 * (position + capacity));
+                    return value;
+                }
+            }
+            else if(difference < 0){
+                // the slot has not been written in this lap yet, buffer is empty
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        // head first: the tail read afterwards can only be further ahead, never behind
+        long head = this.head.get();
+        long size = tail.get() - head;
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    private int index(long position){
+        return mask >= 0 ? (int) (position & mask) : (int) (position % capacity);
+    }
+}
@@ -0,0 +1,394 @@
+package edu.wz.producerconsumer;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded buffer that hands out the least value according to a comparator first, values that compare equal
+ * leave in the order they came, unlike in {@link java.util.PriorityQueue}.
+ * <p>
+ * Starvation protection: once {@code maxBypass} other values have been taken since the oldest value arrived,
+ * it is the next one to leave, whatever its priority. To find and remove the oldest value without a scan,
+ * values are kept in two heaps at once, one by priority and one by age, and each value knows its position in both.
+ * Both heaps and the value slots are preallocated arrays, a transfer costs O(log n) and allocates nothing.
+ */
+public class PriorityBuffer<T> implements Buffer<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private final Lock lock = new ReentrantLock();
+    private final Condition writeCondition;
+    private final Condition readCondition;
+    private final int capacity;
+    private final Comparator<? super T> comparator;
+    private final long maxBypass;
+
+    private final Object[] values;
+    private final long[] sequences;
+    private final long[] enqueuedAt;
+    private final int[] freeSlots;
+    private int freeCount;
+    private final IndexedHeap byPriority;
+    private final IndexedHeap byAge;
+
+    private int size;
+    // mirrors size for lock-free reads, written under the lock only
+    private volatile int count;
+    private long nextSequence;
+    private long gets;
+    private long agedGets;
+
+    /**
+     * Natural order, the least value first.
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityBuffer(){
+        this(DEFAULT_CAPACITY, (Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /**
+     * A value waits at most for as many gets as the buffer can hold.
+     */
+    public PriorityBuffer(int capacity, Comparator<? super T> comparator){
+        this(capacity, comparator, capacity);
+    }
+
+    /**
+     * @param maxBypass how many values may be taken after the oldest one arrived before it goes regardless
+     *                  of priority, {@link Integer#MAX_VALUE} turns aging off
+     */
+    public PriorityBuffer(int capacity, Comparator<? super T> comparator, int maxBypass){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        if(maxBypass <= 0) throw new IllegalArgumentException("Max bypass must be greater than 0");
+        this.capacity = capacity;
+        this.comparator = Objects.requireNonNull(comparator);
+        this.maxBypass = maxBypass == Integer.MAX_VALUE ? Long.MAX_VALUE : maxBypass;
+        values = new Object[capacity];
+        sequences = new long[capacity];
+        enqueuedAt = new long[capacity];
+        freeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+        byPriority = new IndexedHeap(false);
+        byAge = new IndexedHeap(true);
+        writeCondition = lock.newCondition();
+        readCondition = lock.newCondition();
+    }
+
+    @Override
+    public void putValue(T value) {
+        Objects.requireNonNull(value);
+        lock.lock();
+        try{
+            while(size == capacity){
+                readCondition.await();
+            }
+            add(value);
+            writeCondition.signal();
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T getValue() {
+        lock.lock();
+        try{
+            while(size == 0){
+                writeCondition.await();
+            }
+            T value = take();
+            readCondition.signal();
+            return value;
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        Iterator<? extends T> iterator = values.iterator();
+        lock.lock();
+        try{
+            while(iterator.hasNext()){
+                while(size == capacity){
+                    readCondition.await();
+                }
+                int added = 0;
+                try{
+                    while(size < capacity && iterator.hasNext()){
+                        add(Objects.requireNonNull(iterator.next()));
+                        added++;
+                    }
+                }
+                finally{
+                    signal(writeCondition, added);
+                }
+            }
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves values in the order single gets would have taken them, aging included.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        lock.lock();
+        try{
+            while(size == 0){
+                writeCondition.await();
+            }
+            int moved = 0;
+            try{
+                while(moved < max && size > 0){
+                    target.add(take());
+                    moved++;
+                }
+            }
+            finally{
+                signal(readCondition, moved);
+            }
+            return moved;
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            while(size == capacity){
+                if(remaining <= 0) return false;
+                remaining = readCondition.awaitNanos(remaining);
+            }
+            add(value);
+            writeCondition.signal();
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try{
+            while(size == 0){
+                if(remaining <= 0) return null;
+                remaining = writeCondition.awaitNanos(remaining);
+            }
+            T value = take();
+            readCondition.signal();
+            return value;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        lock.lock();
+        try{
+            if(size == capacity) return false;
+            add(value);
+            writeCondition.signal();
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T tryGet() {
+        lock.lock();
+        try{
+            if(size == 0) return null;
+            T value = take();
+            readCondition.signal();
+            return value;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return how many gets took the oldest value because it had waited too long, not because of its priority
+     */
+    public long getAgedGets(){
+        lock.lock();
+        try{
+            return agedGets;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    private void add(T value){
+        int slot = freeSlots[--freeCount];
+        values[slot] = value;
+        sequences[slot] = nextSequence++;
+        enqueuedAt[slot] = gets;
+        byPriority.add(slot, size);
+        byAge.add(slot, size);
+        size++;
+        count = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T take(){
+        int oldest = byAge.peek();
+        int slot = byPriority.peek();
+        if(slot != oldest && gets - enqueuedAt[oldest] >= maxBypass){
+            slot = oldest;
+            agedGets++;
+        }
+        gets++;
+        byPriority.remove(slot, size);
+        byAge.remove(slot, size);
+        size--;
+        count = size;
+        T value = (T) values[slot];
+        values[slot] = null;
+        freeSlots[freeCount++] = slot;
+        return value;
+    }
+
+    /**
+     * One waiter can take care of one changed element, several elements may need everybody.
+     */
+    private static void signal(Condition condition, int changed){
+        if(changed == 1){
+            condition.signal();
+        }
+        else if(changed > 1){
+            condition.signalAll();
+        }
+    }
+
+    /**
+     * Binary min-heap of slot numbers that remembers where every slot sits, so any slot can be removed in O(log n).
+     */
+    private final class IndexedHeap {
+        private final int[] heap = new int[capacity];
+        private final int[] position = new int[capacity];
+        private final boolean byAge;
+
+        private IndexedHeap(boolean byAge){
+            this.byAge = byAge;
+        }
+
+        private int peek(){
+            return heap[0];
+        }
+
+        /**
+         * @param size number of slots in the heap before adding
+         */
+        private void add(int slot, int size){
+            place(slot, size);
+            siftUp(size);
+        }
+
+        /**
+         * @param size number of slots in the heap before removing
+         */
+        private void remove(int slot, int size){
+            int index = position[slot];
+            int last = heap[size - 1];
+            if(index == size - 1) return;
+            place(last, index);
+            siftDown(index, size - 1);
+            siftUp(position[last]);
+        }
+
+        private void siftUp(int index){
+            int slot = heap[index];
+            while(index > 0){
+                int parent = (index - 1) >>> 1;
+                if(!before(slot, heap[parent])) break;
+                place(heap[parent], index);
+                index = parent;
+            }
+            place(slot, index);
+        }
+
+        private void siftDown(int index, int size){
+            int slot = heap[index];
+            int half = size >>> 1;
+            while(index < half){
+                int child = 2 * index + 1;
+                if(child + 1 < size && before(heap[child + 1], heap[child])){
+                    child++;
+                }
+                if(!before(heap[child], slot)) break;
+                place(heap[child], index);
+                index = child;
+            }
+            place(slot, index);
+        }
+
+        private void place(int slot, int index){
+            heap[index] = slot;
+            position[slot] = index;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean before(int a, int b){
+            if(!byAge){
+                int order = comparator.compare((T) values[a], (T) values[b]);
+                if(order != 0) return order < 0;
+            }
+            return sequences[a] < sequences[b];
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package edu.wz.producerconsumer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Cache-line padded counter used for the head and tail positions of the ring buffers and for the positions
+ * the single producer ring caches on either side.
+ * Padding lives in superclasses/subclasses because the JVM keeps the fields of a class hierarchy
+ * in declaration order per class, so the value can not end up on the same line as a neighbour.
+ */
+class Sequence extends SequenceRhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    Sequence(){
+        this(0L);
+    }
+
+    Sequence(long initialValue){
+        VALUE.setRelease(this, initialValue);
+    }
+
+    long get(){
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Plain read, only valid for the thread that is the sole writer of this sequence.
+     */
+    long getPlain(){
+        return (long) VALUE.get(this);
+    }
+
+    /**
+     * Plain write, for sequences only ever used by one thread.
+     */
+    void setPlain(long value){
+        VALUE.set(this, value);
+    }
+
+    void set(long value){
+        VALUE.setRelease(this, value);
+    }
+
+    boolean compareAndSet(long expected, long value){
+        return VALUE.compareAndSet(this, expected, value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
+
+abstract class SequenceLhsPadding {
+    protected long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p11, p12, p13, p14, p15, p16, p17;
+}
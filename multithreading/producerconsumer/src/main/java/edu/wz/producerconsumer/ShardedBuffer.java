@@ -0,0 +1,387 @@
+package edu.wz.producerconsumer;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Buffer split into independent lanes, each with its own lock, so threads working on different lanes never contend.
+ * <p>
+ * Every thread gets a home lane, handed out round-robin on its first call. A producer puts into its home lane and
+ * spills over into the other lanes only when that one is full. A consumer takes from its home lane and steals the
+ * oldest value of another lane only when its own is empty. Order is kept per lane ({@link LaneOrder}), there is
+ * no order across lanes.
+ * <p>
+ * Threads that find nothing to do in any lane park on a shared lot, one for producers and one for consumers.
+ * The other side looks at a volatile waiter count after each operation and takes the lot's lock only when
+ * somebody is parked, so a busy buffer never touches a shared lock at all.
+ */
+public class ShardedBuffer<T> implements Buffer<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Which value the owner of a lane takes first. Thieves always take the oldest value.
+     */
+    public enum LaneOrder {
+        FIFO,
+        /**
+         * Newest first: the value the owner has just put is likely still in its cache.
+         */
+        LIFO
+    }
+
+    private final Lane<T>[] lanes;
+    private final LaneOrder order;
+    private final int capacity;
+
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private final ThreadLocal<Integer> homeLane;
+
+    private final ParkingLot producers = new ParkingLot(this::hasSpace);
+    private final ParkingLot consumers = new ParkingLot(this::hasValues);
+
+    public ShardedBuffer(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * One lane per processor, as long as every lane gets at least one slot.
+     */
+    public ShardedBuffer(int capacity){
+        this(capacity, Math.min(Runtime.getRuntime().availableProcessors(), Math.max(capacity, 1)), LaneOrder.FIFO);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ShardedBuffer(int capacity, int lanes, LaneOrder order){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        if(lanes <= 0 || lanes > capacity) throw new IllegalArgumentException("Lanes must be between 1 and capacity");
+        this.capacity = capacity;
+        this.order = Objects.requireNonNull(order);
+        this.lanes = (Lane<T>[]) new Lane<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new Lane<>(capacity / lanes + (i < capacity % lanes ? 1 : 0));
+        }
+        homeLane = ThreadLocal.withInitial(() -> Math.floorMod(nextLane.getAndIncrement(), lanes));
+    }
+
+    @Override
+    public void putValue(T value) {
+        Objects.requireNonNull(value);
+        try{
+            put(value, false, 0);
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    @Override
+    public T getValue() {
+        try{
+            return take(false, 0);
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    /**
+     * Fills the home lane first, then the others, waking as many parked consumers as values were added.
+     */
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        Iterator<? extends T> iterator = values.iterator();
+        int home = homeLane.get();
+        try{
+            while(iterator.hasNext()){
+                int added = 0;
+                for (int i = 0; i < lanes.length && iterator.hasNext(); i++) {
+                    added += lanes[(home + i) % lanes.length].addAll(iterator);
+                }
+                if(added > 0){
+                    consumers.wake(added);
+                }
+                else{
+                    producers.await(false, 0);
+                }
+            }
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    /**
+     * Empties the home lane first, then steals from the others until {@code max} values are moved.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        int home = homeLane.get();
+        try{
+            while(true){
+                int moved = lanes[home].drainTo(target, max, order == LaneOrder.LIFO);
+                for (int i = 1; i < lanes.length && moved < max; i++) {
+                    moved += lanes[(home + i) % lanes.length].drainTo(target, max - moved, false);
+                }
+                if(moved > 0){
+                    producers.wake(moved);
+                    return moved;
+                }
+                consumers.await(false, 0);
+            }
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    @Override
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(value);
+        if(Thread.interrupted()) throw new InterruptedException();
+        return put(value, true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if(Thread.interrupted()) throw new InterruptedException();
+        return take(true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        if(!offerToLanes(value)) return false;
+        consumers.wake(1);
+        return true;
+    }
+
+    @Override
+    public T tryGet() {
+        T value = pollLanes();
+        if(value != null){
+            producers.wake(1);
+        }
+        return value;
+    }
+
+    /**
+     * Sums the lanes one by one without locking them.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Lane<T> lane : lanes) {
+            size += lane.count;
+        }
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    public int lanes(){
+        return lanes.length;
+    }
+
+    private boolean put(T value, boolean timed, long nanos) throws InterruptedException {
+        while(!offerToLanes(value)){
+            if(timed && nanos <= 0) return false;
+            nanos = producers.await(timed, nanos);
+        }
+        consumers.wake(1);
+        return true;
+    }
+
+    private T take(boolean timed, long nanos) throws InterruptedException {
+        T value;
+        while((value = pollLanes()) == null){
+            if(timed && nanos <= 0) return null;
+            nanos = consumers.await(timed, nanos);
+        }
+        producers.wake(1);
+        return value;
+    }
+
+    private boolean offerToLanes(T value){
+        int home = homeLane.get();
+        for (int i = 0; i < lanes.length; i++) {
+            if(lanes[(home + i) % lanes.length].offer(value)) return true;
+        }
+        return false;
+    }
+
+    private T pollLanes(){
+        int home = homeLane.get();
+        T value = lanes[home].poll(order == LaneOrder.LIFO);
+        for (int i = 1; i < lanes.length && value == null; i++) {
+            value = lanes[(home + i) % lanes.length].poll(false);
+        }
+        return value;
+    }
+
+    private boolean hasSpace(){
+        for (Lane<T> lane : lanes) {
+            if(lane.count < lane.capacity) return true;
+        }
+        return false;
+    }
+
+    private boolean hasValues(){
+        for (Lane<T> lane : lanes) {
+            if(lane.count > 0) return true;
+        }
+        return false;
+    }
+
+    private static final class Lane<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<T> elements;
+        private final int capacity;
+        // mirrors elements.size() for lock-free reads, written under the lock only
+        private volatile int count;
+
+        private Lane(int capacity){
+            this.capacity = capacity;
+            elements = new ArrayDeque<>(capacity);
+        }
+
+        private boolean offer(T value){
+            // a full lane is skipped without taking its lock
+            if(count == capacity) return false;
+            lock.lock();
+            try{
+                if(elements.size() == capacity) return false;
+                elements.addLast(value);
+                count = elements.size();
+                return true;
+            }
+            finally{
+                lock.unlock();
+            }
+        }
+
+        private int addAll(Iterator<? extends T> values){
+            if(count == capacity) return 0;
+            lock.lock();
+            try{
+                int added = 0;
+                while(elements.size() < capacity && values.hasNext()){
+                    elements.addLast(Objects.requireNonNull(values.next()));
+                    added++;
+                }
+                return added;
+            }
+            finally{
+                count = elements.size();
+                lock.unlock();
+            }
+        }
+
+        private T poll(boolean newest){
+            // an empty lane is skipped without taking its lock
+            if(count == 0) return null;
+            lock.lock();
+            try{
+                T value = newest ? elements.pollLast() : elements.pollFirst();
+                count = elements.size();
+                return value;
+            }
+            finally{
+                lock.unlock();
+            }
+        }
+
+        private int drainTo(Collection<? super T> target, int max, boolean newest){
+            if(count == 0) return 0;
+            lock.lock();
+            try{
+                int moved = 0;
+                while(moved < max && !elements.isEmpty()){
+                    target.add(newest ? elements.peekLast() : elements.peekFirst());
+                    if(newest){
+                        elements.removeLast();
+                    }
+                    else{
+                        elements.removeFirst();
+                    }
+                    moved++;
+                }
+                return moved;
+            }
+            finally{
+                count = elements.size();
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Where idle threads of one side wait. A thread registers itself and checks all lanes once more under the lot's
+     * lock before it parks: whoever changes a lane after that check sees the registration and signals under the same
+     * lock, so the wakeup can not be missed.
+     */
+    private static final class ParkingLot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition condition = lock.newCondition();
+        private final BooleanSupplier ready;
+        // written under the lock only
+        private volatile int waiting;
+
+        private ParkingLot(BooleanSupplier ready){
+            this.ready = ready;
+        }
+
+        /**
+         * @return the remaining time for a timed wait
+         */
+        private long await(boolean timed, long nanos) throws InterruptedException {
+            lock.lockInterruptibly();
+            try{
+                waiting++;
+                try{
+                    if(ready.getAsBoolean()) return nanos;
+                    if(!timed){
+                        condition.await();
+                        return nanos;
+                    }
+                    return condition.awaitNanos(nanos);
+                }
+                finally{
+                    waiting--;
+                }
+            }
+            finally{
+                lock.unlock();
+            }
+        }
+
+        private void wake(int count){
+            if(waiting == 0) return;
+            lock.lock();
+            try{
+                if(count >= waiting){
+                    condition.signalAll();
+                }
+                else{
+                    for (int i = 0; i < count; i++) {
+                        condition.signal();
+                    }
+                }
+            }
+            finally{
+                lock.unlock();
+            }
+        }
+    }
+}
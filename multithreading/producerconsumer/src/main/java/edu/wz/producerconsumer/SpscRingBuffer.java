@@ -0,0 +1,158 @@
+package edu.wz.producerconsumer;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Bounded lock-free buffer for exactly one producer thread and one consumer thread.
+ * Elements live in a preallocated array, the producer only moves the tail and the consumer only moves the head,
+ * so a transfer needs neither a lock nor a CAS and allocates nothing.
+ * Each side caches the last seen position of the other side and re-reads it only when the cache says full/empty.
+ */
+public class SpscRingBuffer<T> extends LockFreeBuffer<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final Object[] elements;
+    private final int capacity;
+    private final int mask;
+
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+
+    // last head seen by the producer and last tail seen by the consumer, padded like the positions themselves:
+    // plain fields next to each other would put the producer and the consumer back on one cache line
+    private final Sequence headCache = new Sequence();
+    private final Sequence tailCache = new Sequence();
+
+    public SpscRingBuffer(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SpscRingBuffer(int capacity){
+        if(capacity <= 0) throw new IllegalArgumentException("Capacity must be greater than 0");
+        this.capacity = capacity;
+        this.mask = Integer.bitCount(capacity) == 1 ? capacity - 1 : -1;
+        elements = new Object[capacity];
+    }
+
+    /**
+     * Fills all free slots before publishing them with a single tail update.
+     */
+    @Override
+    public void putAll(Collection<? extends T> values) {
+        Iterator<? extends T> iterator = values.iterator();
+        long position = tail.getPlain();
+        int attempt = 0;
+        try{
+            while(iterator.hasNext()){
+                if(position - headCache.getPlain() >= capacity){
+                    headCache.setPlain(head.get());
+                    if(position - headCache.getPlain() >= capacity){
+                        attempt = Backoff.idle(attempt);
+                        continue;
+                    }
+                }
+                attempt = 0;
+                long limit = headCache.getPlain() + capacity;
+                try{
+                    while(position < limit && iterator.hasNext()){
+                        elements[index(position)] = Objects.requireNonNull(iterator.next());
+                        position++;
+                    }
+                }
+                finally{
+                    tail.set(position);
+                }
+            }
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+    }
+
+    /**
+     * Takes everything published so far, up to {@code max}, and frees the slots with a single head update.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> target, int max) {
+        if(max <= 0) return 0;
+        long start = head.getPlain();
+        int attempt = 0;
+        tailCache.setPlain(tail.get());
+        try{
+            while(start >= tailCache.getPlain()){
+                attempt = Backoff.idle(attempt);
+                tailCache.setPlain(tail.get());
+            }
+        }
+        catch (InterruptedException e){
+            throw Backoff.interrupted(e);
+        }
+        long limit = Math.min(tailCache.getPlain(), start + max);
+        long position = start;
+        try{
+            while(position < limit){
+                int index = index(position);
+                target.add((T) elements[index]);
+                elements[index] = null;
+                position++;
+            }
+        }
+        finally{
+            head.set(position);
+        }
+        return (int) (position - start);
+    }
+
+    @Override
+    public boolean tryPut(T value) {
+        Objects.requireNonNull(value);
+        long position = tail.getPlain();
+        if(position - headCache.getPlain() >= capacity){
+            headCache.setPlain(head.get());
+            if(position - headCache.getPlain() >= capacity){
+                return false;
+            }
+        }
+        elements[index(position)] = value;
+        tail.set(position + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T tryGet() {
+        long position = head.getPlain();
+        if(position >= tailCache.getPlain()){
+            tailCache.setPlain(tail.get());
+            if(position >= tailCache.getPlain()){
+                return null;
+            }
+        }
+        int index = index(position);
+        T value = (T) elements[index];
+        elements[index] = null;
+        head.set(position + 1);
+        return value;
+    }
+
+    @Override
+    public int size() {
+        // head first: the tail read afterwards can only be further ahead, never behind
+        long head = this.head.get();
+        long size = tail.get() - head;
+        return (int) Math.min(size, capacity);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    private int index(long position){
+        return mask >= 0 ? (int) (position & mask) : (int) (position % capacity);
+    }
+}
@@ -0,0 +1,134 @@
+package edu.wz.producerconsumer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * What putAll and drainTo move, in which order and how much. How much faster they are is measured by the
+ * batch benchmark of the benchmarks module.
+ */
+class BatchTransferTest {
+
+    static Stream<Arguments> buffers(){
+        return Stream.of(
+                Arguments.of("BufferWithCapacity", (IntFunction<Buffer<Integer>>) BufferWithCapacity::new),
+                Arguments.of("BufferWithCapacityUsingConditions", (IntFunction<Buffer<Integer>>) BufferWithCapacityUsingConditions::new),
+                Arguments.of("BufferWithTargetedWakeups", (IntFunction<Buffer<Integer>>) BufferWithTargetedWakeups::new),
+                Arguments.of("SpscRingBuffer", (IntFunction<Buffer<Integer>>) SpscRingBuffer::new),
+                Arguments.of("MpmcRingBuffer", (IntFunction<Buffer<Integer>>) MpmcRingBuffer::new),
+                Arguments.of("BufferUsingSemaphores", (IntFunction<Buffer<Integer>>) BufferUsingSemaphores::new));
+    }
+
+    /**
+     * Batches larger than the buffer go through in chunks, every value arrives once and in order
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void batchesKeepOrderAndCount(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        Buffer<Integer> buffer = factory.apply(16);
+        List<Integer> values = IntStream.range(0, 20_000).boxed().toList();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try{
+            executorService.submit(() -> {
+                for (int from = 0; from < values.size(); from += 100) {
+                    buffer.putAll(values.subList(from, Math.min(from + 100, values.size())));
+                }
+            });
+            Future<List<Integer>> result = executorService.submit(() -> {
+                List<Integer> received = new ArrayList<>(values.size());
+                while(received.size() < values.size()){
+                    int before = received.size();
+                    int moved = buffer.drainTo(received, 37);
+                    assertThat(moved).isBetween(1, 37).isEqualTo(received.size() - before);
+                }
+                return received;
+            });
+
+            assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(values);
+            assertThat(buffer.size()).isZero();
+        }
+        finally{
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * A drain takes at most max values and leaves the rest, a smaller buffer content is taken as it is
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void drainIsPartial(String name, IntFunction<Buffer<Integer>> factory){
+        Buffer<Integer> buffer = factory.apply(8);
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(buffer.drainTo(drained, 0)).isZero();
+        assertThat(buffer.drainTo(drained, -1)).isZero();
+        buffer.putAll(List.of(1, 2, 3, 4, 5));
+        assertThat(buffer.size()).isEqualTo(5);
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(1, 2, 3);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(1, 2, 3, 4, 5);
+        assertThat(buffer.tryGet()).isNull();
+    }
+
+    /**
+     * putAll fills the free space without waiting, an empty batch is fine
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void putAllFillsFreeSpace(String name, IntFunction<Buffer<Integer>> factory){
+        Buffer<Integer> buffer = factory.apply(4);
+
+        buffer.putAll(List.of());
+        buffer.putAll(List.of(1, 2, 3));
+        assertThat(buffer.size()).isEqualTo(3);
+        assertThat(buffer.tryPut(4)).isTrue();
+        assertThat(buffer.tryPut(5)).isFalse();
+        assertThat(buffer.tryGet()).isEqualTo(1);
+    }
+
+    /**
+     * A target that throws halfway leaves the buffer consistent: what it did not take can still be taken, at most
+     * the rejected value is lost, and the whole capacity is free again afterwards
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void failingTargetLeavesBufferUsable(String name, IntFunction<Buffer<Integer>> factory){
+        Buffer<Integer> buffer = factory.apply(4);
+        buffer.putAll(List.of(1, 2, 3, 4));
+        List<Integer> accepted = new ArrayList<>() {
+            @Override
+            public boolean add(Integer value) {
+                if(size() == 1) throw new IllegalStateException("Target is full");
+                return super.add(value);
+            }
+        };
+
+        assertThatIllegalStateException().isThrownBy(() -> buffer.drainTo(accepted, 4));
+        List<Integer> rest = new ArrayList<>();
+        Integer value;
+        while((value = buffer.tryGet()) != null){
+            rest.add(value);
+        }
+        assertThat(accepted).containsExactly(1);
+        assertThat(List.of(2, 3, 4)).containsSubsequence(rest);
+        assertThat(rest).hasSizeGreaterThanOrEqualTo(2);
+        assertThat(buffer.size()).isZero();
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.tryPut(i)).isTrue();
+        }
+        assertThat(buffer.tryPut(4)).isFalse();
+    }
+}
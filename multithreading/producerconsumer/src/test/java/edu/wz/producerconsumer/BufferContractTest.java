@@ -0,0 +1,151 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Producer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Producer and consumer scenarios every first-in first-out buffer has to pass,
+ * the same ones {@link BufferWithCapacityTest} runs against the original buffer.
+ */
+class BufferContractTest {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private static List<Integer> preparedData1;
+    private static List<Integer> preparedData2;
+
+    private ExecutorService executorService;
+
+    /**
+     * Buffers that can be shared by any number of producers and consumers.
+     */
+    static Stream<Arguments> sharedBuffers(){
+        return Stream.of(
+                Arguments.of("BufferWithTargetedWakeups", (IntFunction<Buffer<Integer>>) BufferWithTargetedWakeups::new),
+                Arguments.of("MpmcRingBuffer", (IntFunction<Buffer<Integer>>) MpmcRingBuffer::new),
+                Arguments.of("BufferUsingSemaphores", (IntFunction<Buffer<Integer>>) BufferUsingSemaphores::new));
+    }
+
+    /**
+     * Shared buffers and the ones limited to one producer and one consumer.
+     */
+    static Stream<Arguments> buffers(){
+        return Stream.concat(sharedBuffers(), Stream.of(
+                Arguments.of("SpscRingBuffer", (IntFunction<Buffer<Integer>>) SpscRingBuffer::new)));
+    }
+
+    @BeforeAll
+    public static void prepareData(){
+        preparedData1 = Stream
+                .generate(() -> (int) (Math.random() * 100))
+                .limit(20)
+                .toList();
+
+        preparedData2 = Stream
+                .generate(() -> (int) (Math.random() * 100))
+                .limit(20)
+                .toList();
+    }
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Simple setup to test one producer one consumer situation. All values produced must be received by consumer
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void oneConsumerOneProducer(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        Buffer<Integer> buffer = factory.apply(DEFAULT_CAPACITY);
+        executorService.submit(new Producer<>(preparedData1, 100, buffer));
+        Future<List<Integer>> result = executorService.submit(() -> take(buffer, preparedData1.size(), 0));
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).containsExactlyElementsOf(preparedData1);
+    }
+
+    /**
+     * All values produced by multiple producers must be consumed in time and be the same, but not in the same order.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("sharedBuffers")
+    public void multipleConsumersMultipleProducers(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        Buffer<Integer> buffer = factory.apply(DEFAULT_CAPACITY);
+        executorService.submit(new Producer<>(preparedData1, 100, buffer));
+        executorService.submit(new Producer<>(preparedData2, 100, buffer));
+        // every consumer claims a value before taking it, so together they take exactly what was produced
+        AtomicInteger remaining = new AtomicInteger(preparedData1.size() + preparedData2.size());
+        Callable<List<Integer>> consumer = () -> {
+            List<Integer> received = new ArrayList<>();
+            while(remaining.getAndDecrement() > 0){
+                received.add(buffer.getValue());
+            }
+            return received;
+        };
+        Future<List<Integer>> consumer1 = executorService.submit(consumer);
+        Future<List<Integer>> consumer2 = executorService.submit(consumer);
+
+        List<Integer> received = new ArrayList<>(consumer1.get(10, TimeUnit.SECONDS));
+        received.addAll(consumer2.get(10, TimeUnit.SECONDS));
+        assertThat(received).containsExactlyInAnyOrderElementsOf(both());
+    }
+
+    /**
+     * Situation when consumer is slower than producers
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("sharedBuffers")
+    public void fastProducersWaitSlowConsumer(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        slowConsumer(factory.apply(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Test when buffer has ability to hold only one element
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("sharedBuffers")
+    public void bufferHasCapacityJustForOneElement(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        slowConsumer(factory.apply(1));
+    }
+
+    private void slowConsumer(Buffer<Integer> buffer) throws Exception {
+        executorService.submit(new Producer<>(preparedData1, 50, buffer));
+        executorService.submit(new Producer<>(preparedData2, 20, buffer));
+        Future<List<Integer>> result = executorService.submit(() -> take(buffer, preparedData1.size() + preparedData2.size(), 50));
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).containsExactlyInAnyOrderElementsOf(both());
+    }
+
+    private static List<Integer> take(Buffer<Integer> buffer, int count, int pause) throws InterruptedException {
+        List<Integer> received = new ArrayList<>();
+        while(received.size() < count){
+            received.add(buffer.getValue());
+            Thread.sleep(pause);
+        }
+        return received;
+    }
+
+    private static List<Integer> both(){
+        return Stream.concat(preparedData1.stream(), preparedData2.stream()).toList();
+    }
+}
@@ -0,0 +1,179 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Producer;
+import edu.wz.producerconsumer.util.ProducerThreads;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Virtual threads need JDK 21, the project builds for 17: there the 100k producer test is skipped and
+ * {@link #hundredThousandProducersOnPlatformPool()} runs the same number of producers on a bounded platform pool.
+ */
+public class BufferUsingSemaphoresTest {
+
+    private static final int PRODUCERS = 100_000;
+    private static final int CAPACITY = 10;
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * 100k producers each on its own virtual thread block on one small buffer, the consumer is a virtual thread as
+     * well. Waiting must unmount them: flight recorder reports no virtual thread pinned to its carrier meanwhile.
+     * Needs JDK 21, skipped on older ones.
+     */
+    @Test
+    public void hundredThousandVirtualProducers() throws Exception {
+        assumeTrue(ProducerThreads.VIRTUAL.isSupported(), "virtual threads need JDK 21");
+        Path events = Files.createTempFile("pinned", ".jfr");
+        ExecutorService virtualThreads = ProducerThreads.VIRTUAL.newExecutor();
+        try(Recording recording = new Recording()){
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            transfer(virtualThreads, virtualThreads, PRODUCERS, 1);
+            recording.stop();
+            recording.dump(events);
+
+            assertThat(RecordingFile.readAllEvents(events)).noneMatch(event -> event.getEventType().getName().equals(PINNED_EVENT));
+        }
+        finally{
+            virtualThreads.shutdownNow();
+            Files.delete(events);
+        }
+    }
+
+    /**
+     * The same 100k producers on 256 platform threads, most of them queued while the running ones wait for space.
+     * Blocked producers must not starve the pool: every producer gets to run and every value arrives once.
+     */
+    @Test
+    public void hundredThousandProducersOnPlatformPool() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(256);
+        ExecutorService consumer = Executors.newSingleThreadExecutor();
+        try{
+            transfer(producers, consumer, PRODUCERS, 1);
+        }
+        finally{
+            producers.shutdownNow();
+            consumer.shutdownNow();
+        }
+    }
+
+    /**
+     * A thousand producers each on a thread of its own, at a scale the operating system is fine with.
+     */
+    @Test
+    public void thousandPlatformProducers() throws Exception {
+        ExecutorService producers = ProducerThreads.PLATFORM.newExecutor();
+        ExecutorService consumer = Executors.newSingleThreadExecutor();
+        try{
+            transfer(producers, consumer, 1_000, 20);
+        }
+        finally{
+            producers.shutdownNow();
+            consumer.shutdownNow();
+        }
+    }
+
+    /**
+     * A blocked put gives up on interrupt and keeps the interrupt status.
+     */
+    @Test
+    public void interruptedProducer() throws InterruptedException {
+        Buffer<Integer> buffer = new BufferUsingSemaphores<>(1);
+        buffer.putValue(1);
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            try{
+                buffer.putValue(2);
+            }
+            catch (RuntimeException e){
+                interruptKept.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        producer.start();
+        Thread.sleep(50);
+        producer.interrupt();
+        producer.join(1000);
+
+        assertThat(interruptKept).isTrue();
+        assertThat(buffer.tryGet()).isEqualTo(1);
+        assertThat(buffer.tryGet()).isNull();
+    }
+
+    /**
+     * Batches take several permits at once, but never more than they keep: a try call running next to them always
+     * finds the space that is there.
+     */
+    @Test
+    public void batchesDoNotMakeTryCallsFail() throws Exception {
+        Buffer<Integer> buffer = new BufferUsingSemaphores<>(100);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread batches = new Thread(() -> {
+            List<Integer> drained = new ArrayList<>();
+            while(!done.get()){
+                buffer.putAll(List.of(1, 2, 3));
+                buffer.drainTo(drained, 3);
+                drained.clear();
+            }
+        });
+        batches.start();
+        try{
+            for (int i = 0; i < 100_000; i++) {
+                // at most 4 values are inside at any time
+                assertThat(buffer.tryPut(i)).isTrue();
+                buffer.tryGet();
+            }
+        }
+        finally{
+            done.set(true);
+            batches.join(1000);
+        }
+    }
+
+    /**
+     * Every value must arrive exactly once, the buffer must never hold more than its capacity, and afterwards
+     * all permits must be back: the capacity is free again and there is nothing left to take.
+     */
+    private void transfer(ExecutorService producerService, ExecutorService consumerService,
+                          int producers, int valuesPerProducer) throws Exception {
+        Buffer<Integer> buffer = new BufferUsingSemaphores<>(CAPACITY);
+        int total = producers * valuesPerProducer;
+
+        Future<long[]> consumer = consumerService.submit(() -> {
+            long[] seen = new long[total];
+            List<Integer> drained = new ArrayList<>(CAPACITY);
+            int received = 0;
+            while(received < total){
+                assertThat(buffer.size()).isLessThanOrEqualTo(CAPACITY);
+                received += buffer.drainTo(drained, CAPACITY);
+                drained.forEach(value -> seen[value]++);
+                drained.clear();
+            }
+            return seen;
+        });
+        for (int p = 0; p < producers; p++) {
+            List<Integer> values = IntStream.range(p * valuesPerProducer, (p + 1) * valuesPerProducer).boxed().toList();
+            producerService.submit(new Producer<>(values, 0, buffer));
+        }
+
+        assertThat(consumer.get(60, TimeUnit.SECONDS)).containsOnly(1);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.tryGet()).isNull();
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(buffer.tryPut(i)).isTrue();
+        }
+        assertThat(buffer.tryPut(CAPACITY)).isFalse();
+    }
+}
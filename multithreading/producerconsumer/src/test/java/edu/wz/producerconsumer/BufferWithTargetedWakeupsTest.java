@@ -0,0 +1,100 @@
+package edu.wz.producerconsumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * How much waiting targeted wakeups save compared to {@link BufferWithCapacity}, which wakes every waiting thread
+ * with notifyAll. The common producer and consumer scenarios are in {@link BufferContractTest}.
+ */
+public class BufferWithTargetedWakeupsTest {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final int THREADS = 32;
+    private static final int VALUES_PER_THREAD = 2_000;
+    private static final int CAPACITY = 8;
+
+    /**
+     * 32 producers and 32 consumers without pauses. Every value must arrive, a signal only ever goes to a thread
+     * that is really waiting, and a woken thread rarely finds nothing to do.
+     */
+    @Test
+    public void thirtyTwoProducersThirtyTwoConsumers() throws Exception {
+        BufferWithTargetedWakeups<Integer> targeted = new BufferWithTargetedWakeups<>(CAPACITY);
+
+        transfer(targeted);
+
+        long transfers = (long) THREADS * VALUES_PER_THREAD;
+        assertThat(targeted.getSignals()).isLessThanOrEqualTo(targeted.getContextSwitches());
+        assertThat(targeted.getSpuriousWakeups()).isLessThan(transfers);
+    }
+
+    /**
+     * Under the same load the threads of the targeted buffer go to sleep about half as often as the ones of the
+     * notifyAll buffer, where every woken thread queues for the monitor and most find the value or slot taken.
+     * Sleeps are counted by the JVM per thread: waits and parks, plus blocking on a contended monitor, which is
+     * how {@link BufferWithCapacity} queues for its lock while {@link BufferWithTargetedWakeups} parks.
+     */
+    @Test
+    public void sleepsLessThanNotifyAll() throws Exception {
+        long notifyAll = transfer(new BufferWithCapacity<>(CAPACITY));
+        long targeted = transfer(new BufferWithTargetedWakeups<>(CAPACITY));
+
+        assertThat(targeted).isLessThan(notifyAll * 3 / 4);
+    }
+
+    /**
+     * Moves {@link #VALUES_PER_THREAD} values from each of {@link #THREADS} producers to as many consumers,
+     * checks that every value arrived and returns how many times the threads went to sleep meanwhile.
+     */
+    private static long transfer(Buffer<Integer> buffer) throws Exception {
+        AtomicLong sleeps = new AtomicLong();
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(() -> {
+                for (int i = 1; i <= VALUES_PER_THREAD; i++) {
+                    buffer.putValue(i);
+                }
+                sleeps.addAndGet(sleeps());
+                return 0L;
+            });
+            tasks.add(() -> {
+                long sum = 0;
+                for (int i = 0; i < VALUES_PER_THREAD; i++) {
+                    sum += buffer.getValue();
+                }
+                sleeps.addAndGet(sleeps());
+                return sum;
+            });
+        }
+        // fresh threads, so their counters start at zero
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        try{
+            long total = 0;
+            for (Future<Long> sum : pool.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                total += sum.get();
+            }
+            long transfers = (long) THREADS * VALUES_PER_THREAD;
+            assertThat(total).isEqualTo(transfers * (VALUES_PER_THREAD + 1) / 2);
+            return sleeps.get();
+        }
+        finally{
+            pool.shutdownNow();
+        }
+    }
+
+    private static long sleeps(){
+        ThreadInfo info = THREAD_MX_BEAN.getThreadInfo(Thread.currentThread().getId());
+        return info.getWaitedCount() + info.getBlockedCount();
+    }
+}
@@ -0,0 +1,213 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Allocations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class InstrumentedBufferTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Values pass through unchanged and every put and get is counted, the high-water mark remembers the peak.
+     */
+    @Test
+    public void countsTransfersAndHighWaterMark(){
+        InstrumentedBuffer<Integer> buffer = new InstrumentedBuffer<>(new BufferWithCapacityUsingConditions<>(8), 1);
+        buffer.putValue(1);
+        buffer.putAll(List.of(2, 3, 4, 5));
+        assertThat(buffer.tryGet()).isEqualTo(1);
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 2)).isEqualTo(2);
+        assertThat(drained).containsExactly(2, 3);
+
+        BufferMetrics metrics = buffer.metrics();
+        assertThat(metrics.getCapacity()).isEqualTo(8);
+        assertThat(metrics.getSize()).isEqualTo(2);
+        assertThat(metrics.getHighWaterMark()).isEqualTo(5);
+        assertThat(metrics.getPuts()).isEqualTo(5);
+        assertThat(metrics.getGets()).isEqualTo(3);
+        assertThat(metrics.getLatency().getCount()).isEqualTo(3);
+        assertThat(metrics.getProducerBlockedNanos()).isZero();
+        assertThat(metrics.getConsumerBlockedNanos()).isZero();
+    }
+
+    /**
+     * Failed non-blocking calls change nothing, a timed out poll is counted as time the consumer was blocked.
+     */
+    @Test
+    public void failedCallsAreNotCounted() throws InterruptedException {
+        InstrumentedBuffer<Integer> buffer = new InstrumentedBuffer<>(new SpscRingBuffer<>(1));
+        assertThat(buffer.tryGet()).isNull();
+        assertThat(buffer.tryPut(1)).isTrue();
+        assertThat(buffer.tryPut(2)).isFalse();
+        assertThat(buffer.getValue()).isEqualTo(1);
+        assertThat(buffer.poll(20, TimeUnit.MILLISECONDS)).isNull();
+
+        BufferMetrics metrics = buffer.metrics();
+        assertThat(metrics.getPuts()).isEqualTo(1);
+        assertThat(metrics.getGets()).isEqualTo(1);
+        assertThat(metrics.getConsumerBlockedNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    /**
+     * A slow consumer keeps a producer waiting on the full buffer, the values spend at least the consumer pause inside.
+     */
+    @Test
+    public void slowConsumerBlocksProducer() throws Exception {
+        InstrumentedBuffer<Integer> buffer = new InstrumentedBuffer<>(new BufferWithTargetedWakeups<>(2), 1);
+        List<Integer> data = IntStream.range(0, 20).boxed().toList();
+
+        Future<?> producer = executorService.submit(() -> data.forEach(buffer::putValue));
+        Future<List<Integer>> consumer = executorService.submit(() -> {
+            List<Integer> received = new ArrayList<>();
+            while(received.size() < data.size()){
+                Thread.sleep(5);
+                received.add(buffer.getValue());
+            }
+            return received;
+        });
+
+        producer.get(5000, TimeUnit.MILLISECONDS);
+        assertThat(consumer.get(5000, TimeUnit.MILLISECONDS)).containsExactlyElementsOf(data);
+
+        BufferMetrics metrics = buffer.metrics();
+        assertThat(metrics.getHighWaterMark()).isEqualTo(2);
+        assertThat(metrics.getProducerBlockedNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(metrics.getLatency().getCount()).isEqualTo(data.size());
+        assertThat(metrics.getLatency().percentile(99)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(metrics.getLatency().percentile(99)).isLessThanOrEqualTo(metrics.getLatency().getMaxNanos());
+    }
+
+    /**
+     * The delegate gets the values themselves, a comparator ordered buffer can compare them.
+     */
+    @Test
+    public void delegateSeesTheValues(){
+        InstrumentedBuffer<String> buffer = new InstrumentedBuffer<>(new PriorityBuffer<>(4, Comparator.comparing(String::length)), 1);
+        buffer.putAll(List.of("ccc", "a", "bb"));
+
+        assertThat(buffer.getValue()).isEqualTo("a");
+        assertThat(buffer.tryGet()).isEqualTo("bb");
+        assertThat(buffer.tryGet()).isEqualTo("ccc");
+        assertThat(buffer.metrics().getLatency().getCount()).isEqualTo(3);
+    }
+
+    /**
+     * Measuring adds no allocation of its own to a transfer.
+     */
+    @Test
+    public void transferDoesNotAllocate(){
+        InstrumentedBuffer<Object> buffer = new InstrumentedBuffer<>(new MpmcRingBuffer<>(16), 1);
+        Object value = new Object();
+        Runnable transfers = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                buffer.putValue(value);
+                buffer.getValue();
+            }
+        };
+        transfers.run();
+
+        assertThat(Allocations.measure(transfers)).isLessThan(10_000);
+        assertThat(buffer.metrics().getLatency().getCount()).isEqualTo(200_000);
+    }
+
+    /**
+     * Latency follows the value itself: with a delegate that reorders, a value that jumps the queue is charged
+     * only its own short stay.
+     */
+    @Test
+    public void pairsLatencyByValue() throws InterruptedException {
+        InstrumentedBuffer<String> buffer = new InstrumentedBuffer<>(new PriorityBuffer<>(4, Comparator.comparing(String::length)), 1);
+        buffer.putValue("waits");
+        Thread.sleep(50);
+        buffer.putValue("a");
+
+        assertThat(buffer.getValue()).isEqualTo("a");
+        assertThat(buffer.metrics().getLatency().getMaxNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(buffer.getValue()).isEqualTo("waits");
+        assertThat(buffer.metrics().getLatency().getMaxNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    /**
+     * A putAll that is interrupted leaves nothing behind that later values could be charged with.
+     */
+    @Test
+    public void failedPutAllDoesNotSkewLatency() throws InterruptedException {
+        InstrumentedBuffer<String> buffer = new InstrumentedBuffer<>(new BufferWithCapacity<>(1), 1);
+        buffer.putValue("full");
+        Thread.currentThread().interrupt();
+        assertThatThrownBy(() -> buffer.putAll(List.of("a", "b"))).isInstanceOf(RuntimeException.class);
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(buffer.getValue()).isEqualTo("full");
+
+        Thread.sleep(50);
+        buffer.putValue("later");
+        assertThat(buffer.getValue()).isEqualTo("later");
+        assertThat(buffer.metrics().getLatency().getCount()).isEqualTo(2);
+        assertThat(buffer.metrics().getLatency().getMaxNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    /**
+     * With the default period only some of the values are timed, all of them are still counted.
+     */
+    @Test
+    public void samplesLatency() throws Exception {
+        InstrumentedBuffer<Integer> buffer = new InstrumentedBuffer<>(new BufferWithCapacity<>(1));
+        List<Integer> data = IntStream.range(0, 5_000).boxed().toList();
+
+        Future<?> producer = executorService.submit(() -> buffer.putAll(data));
+        Future<List<Integer>> consumer = executorService.submit(() -> {
+            List<Integer> received = new ArrayList<>();
+            while(received.size() < data.size()){
+                buffer.drainTo(received, 7);
+            }
+            return received;
+        });
+
+        producer.get(10, TimeUnit.SECONDS);
+        assertThat(consumer.get(10, TimeUnit.SECONDS)).containsExactlyElementsOf(data);
+        BufferMetrics metrics = buffer.metrics();
+        assertThat(metrics.getGets()).isEqualTo(data.size());
+        assertThat(metrics.getLatency().getCount()).isBetween(100L, 1_000L);
+        assertThatThrownBy(() -> new InstrumentedBuffer<>(buffer, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Bucket bounds of the histogram stay within 12.5% of the recorded values.
+     */
+    @Test
+    public void histogramPercentiles(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMeanNanos()).isEqualTo(500_500);
+        assertThat(snapshot.percentile(50)).isBetween(500_000L, 562_500L);
+        assertThat(snapshot.percentile(99)).isBetween(990_000L, 1_113_750L);
+        assertThat(snapshot.percentile(100)).isEqualTo(1_000_000);
+        assertThat(LatencyHistogram.bucket(15)).isEqualTo(15);
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.bucket(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,148 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Allocations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class IntBufferTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executorService.shutdownNow();
+    }
+
+    /**
+     * One producer one consumer through a small buffer, values arrive in the order they were put.
+     */
+    @Test
+    public void oneConsumerOneProducer() throws Exception {
+        IntBuffer buffer = new IntBuffer(3);
+        int[] data = IntStream.range(0, 10_000).toArray();
+
+        executorService.submit(() -> Arrays.stream(data).forEach(buffer::putValue));
+        Future<int[]> result = executorService.submit(() -> {
+            int[] received = new int[data.length];
+            for (int i = 0; i < received.length; i++) {
+                received[i] = buffer.getValue();
+            }
+            return received;
+        });
+
+        assertThat(result.get(5000, TimeUnit.MILLISECONDS)).containsExactly(data);
+    }
+
+    /**
+     * Batches wrap around the end of the ring and larger batches than the capacity still arrive complete and in order.
+     */
+    @Test
+    public void batchesWrapAround() throws Exception {
+        IntBuffer buffer = new IntBuffer(7);
+        int[] data = IntStream.range(0, 10_000).toArray();
+
+        executorService.submit(() -> {
+            for (int offset = 0; offset < data.length; offset += 13) {
+                buffer.putAll(data, offset, Math.min(13, data.length - offset));
+            }
+        });
+        Future<int[]> result = executorService.submit(() -> {
+            int[] received = new int[data.length];
+            int filled = 0;
+            while(filled < received.length){
+                filled += buffer.drainTo(received, filled, Math.min(5, received.length - filled));
+            }
+            return received;
+        });
+
+        assertThat(result.get(5000, TimeUnit.MILLISECONDS)).containsExactly(data);
+    }
+
+    /**
+     * All values from two producers reach two consumers exactly once.
+     */
+    @Test
+    public void multipleConsumersMultipleProducers() throws Exception {
+        IntBuffer buffer = new IntBuffer(2);
+        int perProducer = 20_000;
+
+        executorService.submit(() -> IntStream.range(0, perProducer).forEach(buffer::putValue));
+        executorService.submit(() -> IntStream.range(perProducer, 2 * perProducer).forEach(buffer::putValue));
+        Callable<long[]> consumer = () -> {
+            long[] seen = new long[2 * perProducer];
+            for (int i = 0; i < perProducer; i++) {
+                seen[buffer.getValue()]++;
+            }
+            return seen;
+        };
+        Future<long[]> c1 = executorService.submit(consumer);
+        Future<long[]> c2 = executorService.submit(consumer);
+
+        long[] first = c1.get(5000, TimeUnit.MILLISECONDS);
+        long[] second = c2.get(5000, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < first.length; i++) {
+            assertThat(first[i] + second[i]).as("value %d", i).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Non-blocking and timed calls report a full or empty buffer instead of waiting.
+     */
+    @Test
+    public void nonBlockingAndTimedCalls() throws InterruptedException {
+        IntBuffer buffer = new IntBuffer(2);
+        int[] target = new int[4];
+
+        assertThat(buffer.tryGet(target, 0, 4)).isZero();
+        assertThat(buffer.poll(target, 0, 4, 10, TimeUnit.MILLISECONDS)).isZero();
+        assertThat(buffer.tryPut(1)).isTrue();
+        assertThat(buffer.offer(2, 10, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(buffer.tryPut(3)).isFalse();
+        assertThat(buffer.offer(3, 10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.poll(target, 1, 3, 10, TimeUnit.MILLISECONDS)).isEqualTo(2);
+        assertThat(target).containsExactly(0, 1, 2, 0);
+        assertThatThrownBy(() -> buffer.tryGet(target, 2, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    /**
+     * Transfers must not allocate while a boxed buffer allocates an Integer and a list node per value.
+     */
+    @Test
+    public void transferDoesNotAllocate(){
+        IntBuffer buffer = new IntBuffer(16);
+        int[] batch = new int[16];
+        Runnable transfers = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                buffer.putValue(i);
+                buffer.getValue();
+                buffer.putAll(batch, 0, batch.length);
+                buffer.drainTo(batch, 0, batch.length);
+            }
+        };
+        transfers.run();
+
+        Buffer<Integer> boxed = new BufferWithCapacity<>(16);
+        long boxedBytes = Allocations.measure(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                boxed.putValue(i + 1000);
+                boxed.getValue();
+            }
+        });
+
+        assertThat(Allocations.measure(transfers)).isLessThan(10_000);
+        assertThat(boxedBytes).isGreaterThan(100_000L * 16);
+    }
+}
@@ -0,0 +1,72 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Allocations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LongBufferTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Offsets above the int range survive the transfer, in order, whether sent one by one or in batches.
+     */
+    @Test
+    public void oneConsumerOneProducer() throws Exception {
+        LongBuffer buffer = new LongBuffer(5);
+        long[] data = LongStream.range(0, 10_000).map(i -> i + Integer.MAX_VALUE).toArray();
+
+        executorService.submit(() -> {
+            buffer.putAll(data, 0, data.length / 2);
+            for (int i = data.length / 2; i < data.length; i++) {
+                buffer.putValue(data[i]);
+            }
+        });
+        Future<long[]> result = executorService.submit(() -> {
+            long[] received = new long[data.length];
+            int filled = 0;
+            while(filled < received.length / 2){
+                filled += buffer.drainTo(received, filled, received.length - filled);
+            }
+            while(filled < received.length){
+                received[filled++] = buffer.getValue();
+            }
+            return received;
+        });
+
+        assertThat(result.get(5000, TimeUnit.MILLISECONDS)).containsExactly(data);
+    }
+
+    /**
+     * Transfers must not allocate.
+     */
+    @Test
+    public void transferDoesNotAllocate(){
+        LongBuffer buffer = new LongBuffer(16);
+        Runnable transfers = () -> {
+            for (long i = 0; i < 100_000; i++) {
+                buffer.putValue(i);
+                buffer.getValue();
+            }
+        };
+        transfers.run();
+
+        assertThat(Allocations.measure(transfers)).isLessThan(10_000);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Allocations;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Scenarios specific to the lock-free ring, the common ones are in {@link BufferContractTest}.
+ */
+public class MpmcRingBufferTest {
+
+    /**
+     * Many producers and consumers hammering a buffer whose capacity is not a power of two without any pauses.
+     */
+    @Test
+    public void manyProducersManyConsumersWithoutPauses() throws InterruptedException {
+        Buffer<Integer> buffer = new MpmcRingBuffer<>(3);
+        int producers = 4;
+        int valuesPerProducer = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers * 2);
+        List<Future<Long>> sums = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            pool.submit(() -> {
+                for (int i = 1; i <= valuesPerProducer; i++) {
+                    buffer.putValue(i);
+                }
+            });
+            sums.add(pool.submit(() -> {
+                long sum = 0;
+                for (int i = 0; i < valuesPerProducer; i++) {
+                    sum += buffer.getValue();
+                }
+                return sum;
+            }));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        long expected = (long) producers * valuesPerProducer * (valuesPerProducer + 1) / 2;
+        assertThat(sums.stream().mapToLong(future -> {
+            try {
+                return future.get();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }).sum()).isEqualTo(expected);
+    }
+
+    /**
+     * Transfers must not allocate: slots and sequences are preallocated.
+     */
+    @Test
+    public void transferDoesNotAllocate(){
+        Buffer<Object> ring = new MpmcRingBuffer<>(16);
+        Object value = new Object();
+        Runnable transfers = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                ring.putValue(value);
+                ring.getValue();
+            }
+        };
+        transfers.run();
+
+        assertThat(Allocations.measure(transfers)).isLessThan(10_000);
+    }
+}
\ No newline at end of file
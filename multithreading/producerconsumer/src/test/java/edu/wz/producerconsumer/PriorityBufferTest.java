@@ -0,0 +1,141 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Allocations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PriorityBufferTest {
+
+    record Report(int priority, String data) {
+    }
+
+    private static final Comparator<Report> HIGHEST_FIRST = Comparator.comparingInt(Report::priority).reversed();
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Highest priority first, reports with the same priority in the order they were put, unlike PriorityQueue.
+     */
+    @Test
+    public void ordersByPriorityThenArrival(){
+        PriorityBuffer<Report> buffer = new PriorityBuffer<>(10, HIGHEST_FIRST, Integer.MAX_VALUE);
+        buffer.putAll(List.of(
+                new Report(1, "Data-1"), new Report(10, "Data1"), new Report(10, "Data2"), new Report(3, "Data3"),
+                new Report(1, "Data4"), new Report(3, "Data5"), new Report(3, "Data6"), new Report(5, "Data7"),
+                new Report(6, "Data8"), new Report(10, "Data0")));
+
+        List<Report> drained = new ArrayList<>();
+        buffer.drainTo(drained, 3);
+        List<String> taken = new ArrayList<>(drained.stream().map(Report::data).toList());
+        while(buffer.size() > 0){
+            taken.add(buffer.getValue().data());
+        }
+
+        assertThat(taken).containsExactly(
+                "Data1", "Data2", "Data0", "Data8", "Data7", "Data3", "Data5", "Data6", "Data-1", "Data4");
+    }
+
+    /**
+     * Bulk traffic of higher priority can delay a low priority report, but only for maxBypass gets.
+     */
+    @Test
+    public void oldValueIsNotStarved(){
+        PriorityBuffer<Report> buffer = new PriorityBuffer<>(16, HIGHEST_FIRST, 3);
+        buffer.putValue(new Report(0, "low"));
+
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            buffer.putValue(new Report(9, "bulk" + i));
+            buffer.putValue(new Report(9, "bulk" + i + "'"));
+            taken.add(buffer.getValue().data());
+        }
+
+        assertThat(taken).containsExactly("bulk0", "bulk0'", "bulk1", "low", "bulk1'");
+        assertThat(buffer.getAgedGets()).isEqualTo(1);
+    }
+
+    /**
+     * Without aging the low priority report waits until the bulk traffic is gone.
+     */
+    @Test
+    public void agingCanBeTurnedOff(){
+        PriorityBuffer<Report> buffer = new PriorityBuffer<>(4, HIGHEST_FIRST, Integer.MAX_VALUE);
+        buffer.putValue(new Report(0, "low"));
+        for (int i = 0; i < 100; i++) {
+            buffer.putValue(new Report(9, "bulk"));
+            assertThat(buffer.getValue().data()).isEqualTo("bulk");
+        }
+        assertThat(buffer.getValue().data()).isEqualTo("low");
+        assertThat(buffer.getAgedGets()).isZero();
+    }
+
+    /**
+     * Four producers and four consumers through a small buffer, every value arrives exactly once.
+     */
+    @Test
+    public void multipleConsumersMultipleProducers() throws Exception {
+        PriorityBuffer<Integer> buffer = new PriorityBuffer<>(5, Comparator.naturalOrder());
+        int perProducer = 10_000;
+
+        for (int p = 0; p < 4; p++) {
+            List<Integer> values = IntStream.range(p * perProducer, (p + 1) * perProducer).boxed().toList();
+            executorService.submit(() -> values.forEach(buffer::putValue));
+        }
+        List<Future<List<Integer>>> consumers = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            consumers.add(executorService.submit(() -> {
+                List<Integer> received = new ArrayList<>(perProducer);
+                while(received.size() < perProducer){
+                    received.add(buffer.getValue());
+                }
+                return received;
+            }));
+        }
+
+        int[] seen = new int[4 * perProducer];
+        for (Future<List<Integer>> consumer : consumers) {
+            consumer.get(10, TimeUnit.SECONDS).forEach(value -> seen[value]++);
+        }
+        assertThat(seen).containsOnly(1);
+    }
+
+    /**
+     * Heaps and slots are preallocated, moving values through the buffer allocates nothing.
+     */
+    @Test
+    public void transferDoesNotAllocate(){
+        PriorityBuffer<Integer> buffer = new PriorityBuffer<>(16, Comparator.naturalOrder(), 4);
+        Integer[] values = IntStream.range(0, 16).boxed().toArray(Integer[]::new);
+        Runnable transfers = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                buffer.putValue(values[(i * 7) % 16]);
+                if(buffer.size() > 8){
+                    buffer.getValue();
+                }
+            }
+            while(buffer.tryGet() != null);
+        };
+        transfers.run();
+
+        assertThat(Allocations.measure(transfers)).isLessThan(10_000);
+    }
+}
@@ -0,0 +1,143 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.ShardedBuffer.LaneOrder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ShardedBufferTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        executorService.shutdownNow();
+    }
+
+    /**
+     * With one lane the buffer is an ordinary FIFO buffer.
+     */
+    @Test
+    public void singleLaneKeepsOrder() throws Exception {
+        Buffer<Integer> buffer = new ShardedBuffer<>(3, 1, LaneOrder.FIFO);
+        List<Integer> data = IntStream.range(0, 10_000).boxed().toList();
+
+        executorService.submit(() -> data.forEach(buffer::putValue));
+        Future<List<Integer>> result = executorService.submit(() -> {
+            List<Integer> received = new ArrayList<>();
+            while(received.size() < data.size()){
+                received.add(buffer.getValue());
+            }
+            return received;
+        });
+
+        assertThat(result.get(5000, TimeUnit.MILLISECONDS)).isEqualTo(data);
+    }
+
+    /**
+     * The owner of a LIFO lane gets the newest value, a thief gets the oldest one.
+     */
+    @Test
+    public void ownerTakesNewestThiefTakesOldest() throws Exception {
+        ShardedBuffer<Integer> buffer = new ShardedBuffer<>(4, 2, LaneOrder.LIFO);
+        buffer.putValue(1);
+        buffer.putValue(2);
+
+        assertThat(executorService.submit(buffer::getValue).get(5000, TimeUnit.MILLISECONDS)).isEqualTo(1);
+        buffer.putValue(3);
+        assertThat(buffer.getValue()).isEqualTo(3);
+        assertThat(buffer.getValue()).isEqualTo(2);
+    }
+
+    /**
+     * A producer whose lane is full spills over into the other lanes before it waits.
+     */
+    @Test
+    public void fullLaneSpillsOver(){
+        ShardedBuffer<Integer> buffer = new ShardedBuffer<>(4, 4, LaneOrder.FIFO);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.tryPut(i)).isTrue();
+        }
+        assertThat(buffer.tryPut(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    /**
+     * A consumer parked while its own lane is empty wakes up for a value put into another lane.
+     */
+    @Test
+    public void parkedConsumerIsWokenFromAnotherLane() throws Exception {
+        ShardedBuffer<Integer> buffer = new ShardedBuffer<>(8, 4, LaneOrder.FIFO);
+        Future<Integer> consumer = executorService.submit(buffer::getValue);
+        Thread.sleep(100);
+        buffer.putValue(42);
+
+        assertThat(consumer.get(5000, TimeUnit.MILLISECONDS)).isEqualTo(42);
+    }
+
+    /**
+     * Eight producers and eight consumers, single and batch operations mixed: every value arrives exactly once.
+     */
+    @Test
+    public void eightProducersEightConsumers() throws Exception {
+        ShardedBuffer<Integer> buffer = new ShardedBuffer<>(16, 4, LaneOrder.LIFO);
+        int producers = 8;
+        int perProducer = 20_000;
+
+        for (int p = 0; p < producers; p++) {
+            List<Integer> values = IntStream.range(p * perProducer, (p + 1) * perProducer).boxed().toList();
+            boolean batches = p % 2 == 0;
+            executorService.submit(() -> {
+                if(batches){
+                    for (int i = 0; i < values.size(); i += 7) {
+                        buffer.putAll(values.subList(i, Math.min(i + 7, values.size())));
+                    }
+                }
+                else{
+                    values.forEach(buffer::putValue);
+                }
+            });
+        }
+        List<Future<List<Integer>>> consumers = new ArrayList<>();
+        for (int c = 0; c < producers; c++) {
+            boolean batches = c % 2 == 0;
+            consumers.add(executorService.submit(() -> {
+                List<Integer> received = new ArrayList<>(perProducer);
+                while(received.size() < perProducer){
+                    if(batches){
+                        buffer.drainTo(received, perProducer - received.size());
+                    }
+                    else{
+                        received.add(buffer.getValue());
+                    }
+                }
+                return received;
+            }));
+        }
+
+        int[] seen = new int[producers * perProducer];
+        for (Future<List<Integer>> consumer : consumers) {
+            consumer.get(30, TimeUnit.SECONDS).forEach(value -> seen[value]++);
+        }
+        assertThat(seen).containsOnly(1);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void lanesMustFitCapacity(){
+        assertThatThrownBy(() -> new ShardedBuffer<>(2, 3, LaneOrder.FIFO)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new ShardedBuffer<>(1).lanes()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,109 @@
+package edu.wz.producerconsumer;
+
+import edu.wz.producerconsumer.util.Allocations;
+import edu.wz.producerconsumer.util.Producer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Scenarios specific to the single producer ring, the common ones are in {@link BufferContractTest}.
+ */
+public class SpscRingBufferTest {
+
+    private Buffer<Integer> buffer;
+    private ExecutorService executorService;
+    private static List<Integer> preparedData;
+
+    @BeforeAll
+    public static void prepareData(){
+        preparedData = Stream
+                .generate(() -> (int) (Math.random() * 100))
+                .limit(20)
+                .toList();
+    }
+
+    @BeforeEach
+    public void setUp(){
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    /**
+     * Situation when consumer is slower than producer and buffer has ability to hold only one element
+     */
+    @Test
+    public void fastProducerWaitsSlowConsumerWithCapacityOfOne(){
+        buffer = new SpscRingBuffer<>(1);
+        Runnable p1 = new Producer<>(preparedData, 0, buffer);
+
+        Callable<List<Integer>> c1 = () -> {
+            List<Integer> received = new ArrayList<>();
+            while(received.size() < preparedData.size()){
+                received.add(buffer.getValue());
+                Thread.sleep(50);
+            }
+            return received;
+        };
+
+        executorService.submit(p1);
+        Future<List<Integer>> result = executorService.submit(c1);
+
+        try{
+            List<Integer> integerResultList = result.get(5000, TimeUnit.MILLISECONDS);
+            assertThat(integerResultList).containsExactlyElementsOf(preparedData);
+        }
+        catch (Exception e){
+            fail("Exception fired: ", e);
+        }
+    }
+
+    /**
+     * A lot of values without any pauses must arrive in the order they were produced
+     */
+    @Test
+    public void keepsOrderUnderLoad() throws Exception {
+        buffer = new SpscRingBuffer<>(7);
+        int count = 200_000;
+
+        executorService.submit(() -> {
+            for (int i = 0; i < count; i++) {
+                buffer.putValue(i);
+            }
+        });
+        Future<Boolean> inOrder = executorService.submit(() -> {
+            for (int i = 0; i < count; i++) {
+                if(buffer.getValue() != i){
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        assertThat(inOrder.get(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /**
+     * Transfers must not allocate: the ring is preallocated and positions are plain longs.
+     */
+    @Test
+    public void transferDoesNotAllocate(){
+        Buffer<Object> ring = new SpscRingBuffer<>(16);
+        Object value = new Object();
+        Runnable transfers = () -> {
+            for (int i = 0; i < 100_000; i++) {
+                ring.putValue(value);
+                ring.getValue();
+            }
+        };
+        transfers.run();
+
+        assertThat(Allocations.measure(transfers)).isLessThan(10_000);
+    }
+}
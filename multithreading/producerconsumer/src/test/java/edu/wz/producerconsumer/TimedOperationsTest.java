@@ -0,0 +1,155 @@
+package edu.wz.producerconsumer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Comparator;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Timed and non-blocking operations behave the same way for every buffer.
+ */
+class TimedOperationsTest {
+
+    static Stream<Arguments> buffers(){
+        return Stream.of(
+                Arguments.of("BufferWithCapacity", (IntFunction<Buffer<Integer>>) BufferWithCapacity::new),
+                Arguments.of("BufferWithCapacityUsingConditions", (IntFunction<Buffer<Integer>>) BufferWithCapacityUsingConditions::new),
+                Arguments.of("BufferWithTargetedWakeups", (IntFunction<Buffer<Integer>>) BufferWithTargetedWakeups::new),
+                Arguments.of("SpscRingBuffer", (IntFunction<Buffer<Integer>>) SpscRingBuffer::new),
+                Arguments.of("MpmcRingBuffer", (IntFunction<Buffer<Integer>>) MpmcRingBuffer::new),
+                Arguments.of("BufferUsingSemaphores", (IntFunction<Buffer<Integer>>) BufferUsingSemaphores::new),
+                Arguments.of("ShardedBuffer", (IntFunction<Buffer<Integer>>) ShardedBuffer::new),
+                Arguments.of("PriorityBuffer", (IntFunction<Buffer<Integer>>) capacity -> new PriorityBuffer<>(capacity, Comparator.naturalOrder())));
+    }
+
+    /**
+     * try-methods never wait
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void tryMethodsReturnRightAway(String name, IntFunction<Buffer<Integer>> factory){
+        Buffer<Integer> buffer = factory.apply(2);
+
+        assertThat(buffer.tryGet()).isNull();
+        assertThat(buffer.tryPut(1)).isTrue();
+        assertThat(buffer.tryPut(2)).isTrue();
+        assertThat(buffer.tryPut(3)).isFalse();
+        assertThat(buffer.tryGet()).isEqualTo(1);
+        assertThat(buffer.tryGet()).isEqualTo(2);
+        assertThat(buffer.tryGet()).isNull();
+    }
+
+    /**
+     * offer gives up on a full buffer and poll gives up on an empty one once the timeout has elapsed
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void timedMethodsGiveUpAfterTimeout(String name, IntFunction<Buffer<Integer>> factory) throws InterruptedException {
+        Buffer<Integer> buffer = factory.apply(1);
+
+        long start = System.nanoTime();
+        assertThat(buffer.poll(50, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(buffer.offer(1, 0, TimeUnit.MILLISECONDS)).isTrue();
+        start = System.nanoTime();
+        assertThat(buffer.offer(2, 50, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    /**
+     * A waiting offer succeeds as soon as a consumer makes room
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void offerSucceedsWhenSpaceIsFreedInTime(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        Buffer<Integer> buffer = factory.apply(1);
+        buffer.putValue(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try{
+            Future<Integer> consumer = executorService.submit(() -> {
+                Thread.sleep(100);
+                return buffer.getValue();
+            });
+
+            assertThat(buffer.offer(2, 5, TimeUnit.SECONDS)).isTrue();
+            assertThat(consumer.get()).isEqualTo(1);
+            assertThat(buffer.poll(5, TimeUnit.SECONDS)).isEqualTo(2);
+        }
+        finally{
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Cancelling a waiting consumer delivers InterruptedException instead of a wrapped one
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void waitingPollCanBeCancelled(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        Buffer<Integer> buffer = factory.apply(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try{
+            CompletableFuture<Throwable> failure = new CompletableFuture<>();
+            Future<?> consumer = executorService.submit(() -> {
+                try{
+                    buffer.poll(1, TimeUnit.MINUTES);
+                }
+                catch (Throwable e){
+                    failure.complete(e);
+                }
+            });
+            Thread.sleep(100);
+            consumer.cancel(true);
+
+            assertThat(failure.get(5, TimeUnit.SECONDS)).isInstanceOf(InterruptedException.class);
+        }
+        finally{
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * The blocking methods can not throw a checked exception, but the interrupt status survives the wrapping
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void blockingGetKeepsInterruptStatus(String name, IntFunction<Buffer<Integer>> factory) throws Exception {
+        Buffer<Integer> buffer = factory.apply(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try{
+            CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+            Future<?> consumer = executorService.submit(() -> {
+                try{
+                    buffer.getValue();
+                }
+                catch (RuntimeException e){
+                    interrupted.complete(e.getCause() instanceof InterruptedException && Thread.currentThread().isInterrupted());
+                }
+            });
+            Thread.sleep(100);
+            consumer.cancel(true);
+
+            assertThat(interrupted.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        finally{
+            executorService.shutdownNow();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("buffers")
+    public void rejectsNullValues(String name, IntFunction<Buffer<Integer>> factory){
+        Buffer<Integer> buffer = factory.apply(1);
+
+        assertThatNullPointerException().isThrownBy(() -> buffer.putValue(null));
+        assertThatNullPointerException().isThrownBy(() -> buffer.tryPut(null));
+        assertThatNullPointerException().isThrownBy(() -> buffer.offer(null, 1, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,28 @@
+package edu.wz.producerconsumer.util;
+
+import java.lang.management.ManagementFactory;
+
+public final class Allocations {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations(){
+    }
+
+    /**
+     * @return bytes allocated by the current thread since it started, as reported by HotSpot
+     */
+    public static long allocatedBytes(){
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs the action and reports how many bytes the current thread allocated meanwhile.
+     */
+    public static long measure(Runnable action){
+        long before = allocatedBytes();
+        action.run();
+        return allocatedBytes() - before;
+    }
+}
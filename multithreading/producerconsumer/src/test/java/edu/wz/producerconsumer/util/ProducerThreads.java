@@ -0,0 +1,47 @@
+package edu.wz.producerconsumer.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How producers are run: a platform thread per producer or a virtual thread per producer.
+ * Virtual threads are looked up reflectively, the project compiles for a JDK that does not have them,
+ * {@link #isSupported()} tells whether the running one does.
+ */
+public enum ProducerThreads {
+    PLATFORM(lookup("newCachedThreadPool")),
+    VIRTUAL(lookup("newVirtualThreadPerTaskExecutor"));
+
+    private final Method factory;
+
+    ProducerThreads(Method factory){
+        this.factory = factory;
+    }
+
+    public boolean isSupported(){
+        return factory != null;
+    }
+
+    /**
+     * @return executor that starts a new thread of this kind for every submitted producer
+     */
+    public ExecutorService newExecutor(){
+        if(!isSupported()) throw new UnsupportedOperationException(name() + " threads are not available on this JDK");
+        try{
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch (ReflectiveOperationException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method lookup(String name){
+        try{
+            return Executors.class.getMethod(name);
+        }
+        catch (NoSuchMethodException e){
+            return null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package edu.wz.streamsapi.index;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable lookups of companies by id, by name and by the id of one of their employees, built once from a list.
+ * <p>
+ * Every lookup table is an open-addressing hash table over plain arrays: the keys, their cached hash codes and
+ * the index of the company in {@code int} slots, so there are no entry objects and no boxed integers. Tables
+ * are at most half full, a lookup usually compares one cached hash and one string.
+ * <p>
+ * The index captures ids and names at build time, changing them on a company afterwards is not seen by it.
+ */
+public final class CompanyIndex {
+
+    private final Company[] companies;
+    private final StringTable byId;
+    private final StringTable byName;
+    // next company with the same name, -1 ends the chain
+    private final int[] nextWithSameName;
+    private final StringTable byEmployeeId;
+
+    private CompanyIndex(Company[] companies, int employees){
+        this.companies = companies;
+        this.byId = new StringTable(companies.length);
+        this.byName = new StringTable(companies.length);
+        this.nextWithSameName = new int[companies.length];
+        this.byEmployeeId = new StringTable(employees);
+    }
+
+    /**
+     * @throws IllegalArgumentException if two companies or two employees share an id
+     * @throws NullPointerException if a company or employee has no id
+     */
+    public static CompanyIndex of(List<Company> companies){
+        int employees = 0;
+        for (Company company : companies) {
+            employees += company.getEmployees() == null ? 0 : company.getEmployees().size();
+        }
+        CompanyIndex index = new CompanyIndex(companies.toArray(new Company[0]), employees);
+        for (int i = 0; i < index.companies.length; i++) {
+            Company company = index.companies[i];
+            if(index.byId.putIfAbsent(Objects.requireNonNull(company.getId(), "company id"), i) >= 0){
+                throw new IllegalArgumentException("Duplicate company id " + company.getId());
+            }
+            if(company.getEmployees() == null) continue;
+            for (Employee employee : company.getEmployees()) {
+                if(index.byEmployeeId.putIfAbsent(Objects.requireNonNull(employee.getId(), "employee id"), i) >= 0){
+                    throw new IllegalArgumentException("Duplicate employee id " + employee.getId());
+                }
+            }
+        }
+        // backwards, so that every chain lists the companies in their original order
+        for (int i = index.companies.length - 1; i >= 0; i--) {
+            String name = index.companies[i].getName();
+            index.nextWithSameName[i] = name == null ? -1 : index.byName.put(name, i);
+        }
+        return index;
+    }
+
+    public int size(){
+        return companies.length;
+    }
+
+    public Optional<Company> byId(String id){
+        return company(byId.get(id));
+    }
+
+    /**
+     * @return the companies with the name in their original order, empty if there are none
+     */
+    public List<Company> byName(String name){
+        int i = byName.get(name);
+        if(i < 0) return List.of();
+        if(nextWithSameName[i] < 0) return List.of(companies[i]);
+        List<Company> result = new ArrayList<>();
+        for (; i >= 0; i = nextWithSameName[i]) {
+            result.add(companies[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return the company the employee with the id works for
+     */
+    public Optional<Company> byEmployeeId(String employeeId){
+        return company(byEmployeeId.get(employeeId));
+    }
+
+    private Optional<Company> company(int index){
+        return index < 0 ? Optional.empty() : Optional.of(companies[index]);
+    }
+
+    /**
+     * String to non-negative int map with linear probing, sized for a known number of keys and never resized.
+     */
+    private static final class StringTable {
+        private final String[] keys;
+        private final int[] hashes;
+        private final int[] values;
+        private final int mask;
+
+        private StringTable(int expectedKeys){
+            int capacity = Integer.highestOneBit(Math.max(2, expectedKeys) * 2 - 1) << 1;
+            this.keys = new String[capacity];
+            this.hashes = new int[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * @return the value of the key, -1 if there is none
+         */
+        private int get(String key){
+            if(key == null) return -1;
+            int hash = spread(key.hashCode());
+            for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if(hashes[slot] == hash && keys[slot].equals(key)) return values[slot];
+            }
+            return -1;
+        }
+
+        /**
+         * @return the value already there, -1 if the key was added
+         */
+        private int putIfAbsent(String key, int value){
+            int slot = slot(key);
+            if(keys[slot] != null) return values[slot];
+            insert(slot, key, value);
+            return -1;
+        }
+
+        /**
+         * @return the value replaced, -1 if the key was added
+         */
+        private int put(String key, int value){
+            int slot = slot(key);
+            int previous = keys[slot] != null ? values[slot] : -1;
+            insert(slot, key, value);
+            return previous;
+        }
+
+        /**
+         * Slot holding the key or the empty slot where it belongs.
+         */
+        private int slot(String key){
+            int hash = spread(key.hashCode());
+            int slot = hash & mask;
+            while(keys[slot] != null && !(hashes[slot] == hash && keys[slot].equals(key))){
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void insert(int slot, String key, int value){
+            keys[slot] = key;
+            hashes[slot] = spread(key.hashCode());
+            values[slot] = value;
+        }
+
+        /**
+         * Mixes the high bits into the low ones, the mask only looks at the low bits.
+         */
+        private static int spread(int hash){
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package edu.wz.streamsapi.index;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.stats.BoundedHeap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Radius and nearest neighbour queries over the coordinates of companies.
+ * <p>
+ * Every company becomes a point on the unit sphere and the points are kept in a k-d tree over x, y and z.
+ * The straight-line distance between two points on the sphere grows with the great-circle distance, so
+ * comparing the cheap 3D distances gives the same answers as comparing distances along the surface, and there
+ * is no special casing of the poles or the antimeridian. The tree is implicit: the points are stored in plain
+ * arrays, ordered so that the middle of every range splits it, and the range halves are its subtrees.
+ * <p>
+ * Immutable, the coordinates are read when the index is built. Results are ordered nearest first, equal
+ * distances by position in the original list.
+ */
+public final class GeoIndex {
+
+    /**
+     * Mean radius of the Earth.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Company[] companies;
+    // original list position of every point, breaks ties between equal distances
+    private final int[] positions;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+
+    private GeoIndex(int size){
+        this.companies = new Company[size];
+        this.positions = new int[size];
+        this.x = new double[size];
+        this.y = new double[size];
+        this.z = new double[size];
+    }
+
+    public static GeoIndex of(List<Company> companies){
+        int size = companies.size();
+        double[][] points = new double[3][size];
+        for (int i = 0; i < size; i++) {
+            Company company = companies.get(i);
+            double latitude = Math.toRadians(company.getLatitude());
+            double longitude = Math.toRadians(company.getLongitude());
+            points[0][i] = Math.cos(latitude) * Math.cos(longitude);
+            points[1][i] = Math.cos(latitude) * Math.sin(longitude);
+            points[2][i] = Math.sin(latitude);
+        }
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        build(order, points, 0, size, 0);
+
+        GeoIndex index = new GeoIndex(size);
+        for (int i = 0; i < size; i++) {
+            int position = order[i];
+            index.companies[i] = companies.get(position);
+            index.positions[i] = position;
+            index.x[i] = points[0][position];
+            index.y[i] = points[1][position];
+            index.z[i] = points[2][position];
+        }
+        return index;
+    }
+
+    public int size(){
+        return companies.length;
+    }
+
+    /**
+     * @return companies at most {@code radiusKm} away along the surface, nearest first
+     */
+    public List<Company> within(double latitude, double longitude, double radiusKm){
+        if(radiusKm < 0 || Double.isNaN(radiusKm)) throw new IllegalArgumentException("Radius must not be negative");
+        double angle = radiusKm / EARTH_RADIUS_KM;
+        // chord of the angle, anything beyond half the circumference is everything
+        double chord = angle >= Math.PI ? 2 : 2 * Math.sin(angle / 2);
+        Query query = new Query(latitude, longitude);
+        Hits hits = new Hits();
+        within(query, chord * chord * (1 + 1e-12), 0, companies.length, 0, hits);
+        return hits.sorted();
+    }
+
+    /**
+     * @return the {@code k} companies nearest to the point, nearest first
+     */
+    public List<Company> nearest(double latitude, double longitude, int k){
+        if(k < 0) throw new IllegalArgumentException("K must not be negative");
+        Nearest nearest = new Nearest(Math.min(k, companies.length));
+        if(k > 0) nearest(new Query(latitude, longitude), 0, companies.length, 0, nearest);
+        return nearest.sorted();
+    }
+
+    /**
+     * Great-circle distance by the haversine formula.
+     */
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2){
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void within(Query query, double maxDistance, int from, int to, int axis, Hits hits){
+        if(from >= to) return;
+        int middle = (from + to) >>> 1;
+        double distance = query.distance(x[middle], y[middle], z[middle]);
+        if(distance <= maxDistance) hits.add(middle, distance);
+        double difference = query.axis(axis) - coordinate(middle, axis);
+        int next = (axis + 1) % 3;
+        if(difference <= 0 || difference * difference <= maxDistance) within(query, maxDistance, from, middle, next, hits);
+        if(difference >= 0 || difference * difference <= maxDistance) within(query, maxDistance, middle + 1, to, next, hits);
+    }
+
+    private void nearest(Query query, int from, int to, int axis, Nearest nearest){
+        if(from >= to) return;
+        int middle = (from + to) >>> 1;
+        nearest.offer(middle, query.distance(x[middle], y[middle], z[middle]));
+        double difference = query.axis(axis) - coordinate(middle, axis);
+        int next = (axis + 1) % 3;
+        // the side the query is on first, it shrinks the search radius for the other one
+        if(difference <= 0){
+            nearest(query, from, middle, next, nearest);
+            if(nearest.reaches(difference * difference)) nearest(query, middle + 1, to, next, nearest);
+        }
+        else{
+            nearest(query, middle + 1, to, next, nearest);
+            if(nearest.reaches(difference * difference)) nearest(query, from, middle, next, nearest);
+        }
+    }
+
+    private double coordinate(int point, int axis){
+        return switch (axis) {
+            case 0 -> x[point];
+            case 1 -> y[point];
+            default -> z[point];
+        };
+    }
+
+    /**
+     * Orders the range so that its middle holds the median along the axis, then does the same for both halves.
+     */
+    private static void build(int[] order, double[][] points, int from, int to, int axis){
+        if(to - from <= 1) return;
+        int middle = (from + to) >>> 1;
+        select(order, points[axis], from, to - 1, middle);
+        int next = (axis + 1) % 3;
+        build(order, points, from, middle, next);
+        build(order, points, middle + 1, to, next);
+    }
+
+    /**
+     * Quickselect: afterwards {@code order[nth]} is in its sorted place, smaller or equal values left of it.
+     * The partition is three-way, values equal to the pivot end up in one band that is never visited again,
+     * so many equal coordinates do not make it quadratic.
+     */
+    private static void select(int[] order, double[] values, int left, int right, int nth){
+        while(right > left){
+            double pivot = values[order[medianOfThree(order, values, left, (left + right) >>> 1, right)]];
+            int less = left;
+            int greater = right;
+            int i = left;
+            while(i <= greater){
+                double value = values[order[i]];
+                if(value < pivot) swap(order, i++, less++);
+                else if(value > pivot) swap(order, i, greater--);
+                else i++;
+            }
+            if(nth < less) right = less - 1;
+            else if(nth > greater) left = greater + 1;
+            else return;
+        }
+    }
+
+    private static int medianOfThree(int[] order, double[] values, int a, int b, int c){
+        double va = values[order[a]];
+        double vb = values[order[b]];
+        double vc = values[order[c]];
+        if(va < vb){
+            if(vb < vc) return b;
+            return va < vc ? c : a;
+        }
+        if(va < vc) return a;
+        return vb < vc ? c : b;
+    }
+
+    private static void swap(int[] array, int a, int b){
+        int value = array[a];
+        array[a] = array[b];
+        array[b] = value;
+    }
+
+    private static final class Query {
+        private final double x;
+        private final double y;
+        private final double z;
+
+        private Query(double latitude, double longitude){
+            double phi = Math.toRadians(latitude);
+            double lambda = Math.toRadians(longitude);
+            this.x = Math.cos(phi) * Math.cos(lambda);
+            this.y = Math.cos(phi) * Math.sin(lambda);
+            this.z = Math.sin(phi);
+        }
+
+        /**
+         * Squared straight-line distance.
+         */
+        private double distance(double px, double py, double pz){
+            double dx = x - px;
+            double dy = y - py;
+            double dz = z - pz;
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        private double axis(int axis){
+            return switch (axis) {
+                case 0 -> x;
+                case 1 -> y;
+                default -> z;
+            };
+        }
+    }
+
+    private final class Hits {
+        private int[] points = new int[16];
+        private double[] distances = new double[16];
+        private int size;
+
+        private void add(int point, double distance){
+            if(size == points.length){
+                points = Arrays.copyOf(points, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            points[size] = point;
+            distances[size] = distance;
+            size++;
+        }
+
+        private List<Company> sorted(){
+            Integer[] hits = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                hits[i] = i;
+            }
+            Arrays.sort(hits, (a, b) -> {
+                int compared = Double.compare(distances[a], distances[b]);
+                return compared != 0 ? compared : Integer.compare(positions[points[a]], positions[points[b]]);
+            });
+            List<Company> result = new ArrayList<>(size);
+            for (Integer hit : hits) {
+                result.add(companies[points[hit]]);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The nearest points so far in a bounded heap, the farthest one on top.
+     */
+    private final class Nearest {
+        private final BoundedHeap heap;
+        // one slot more than kept: the candidate goes into the spare slot before it competes
+        private final int[] points;
+        private final double[] distances;
+        private int spare;
+
+        private Nearest(int k){
+            this.heap = new BoundedHeap(k, (a, b) -> closer(b, a));
+            this.points = new int[k + 1];
+            this.distances = new double[k + 1];
+            this.spare = k;
+        }
+
+        /**
+         * @return whether a point at the distance could still get in
+         */
+        private boolean reaches(double distance){
+            return !heap.isFull() || (heap.size() > 0 && distance <= distances[heap.weakest()]);
+        }
+
+        private void offer(int point, double distance){
+            int slot = heap.isFull() ? spare : heap.size();
+            points[slot] = point;
+            distances[slot] = distance;
+            int dropped = heap.offer(slot);
+            if(dropped >= 0) spare = dropped;
+        }
+
+        private List<Company> sorted(){
+            int[] slots = heap.drain();
+            Company[] result = new Company[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                result[i] = companies[points[slots[i]]];
+            }
+            return Arrays.asList(result);
+        }
+
+        private boolean closer(int slot, int other){
+            return distances[slot] < distances[other]
+                    || (distances[slot] == distances[other] && positions[points[slot]] < positions[points[other]]);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package edu.wz.streamsapi.index;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Employees sorted by hire date, newest first, with the dates kept as epoch days in an {@code int} array.
+ * Range counts are two binary searches, range iteration and the newest hires walk only the employees returned,
+ * so queries cost O(log n + k).
+ * <p>
+ * New employees go to a small sorted delta next to the main arrays and every query looks at both. Once the
+ * delta holds about the square root of the main size it is merged in, so adding costs O(√n) amortized
+ * instead of shifting the main arrays on every add.
+ * <p>
+ * Employees hired on the same day keep the order they were added in. The index reads the hire date when an
+ * employee is added and does not see later changes. All methods are synchronized.
+ */
+public class HiredOnIndex {
+
+    private static final int MIN_DELTA = 32;
+
+    // the day after the newest day searched for has to fit an int too
+    private static final long LAST_DAY = Integer.MAX_VALUE - 1;
+
+    private int[] days;
+    private Employee[] employees;
+
+    private int[] deltaDays = new int[MIN_DELTA];
+    private Employee[] deltaEmployees = new Employee[MIN_DELTA];
+    private int deltaSize;
+
+    private HiredOnIndex(int[] days, Employee[] employees){
+        this.days = days;
+        this.employees = employees;
+    }
+
+    public HiredOnIndex(){
+        this(new int[0], new Employee[0]);
+    }
+
+    /**
+     * @throws NullPointerException if an employee has no hire date
+     */
+    public static HiredOnIndex of(List<Company> companies){
+        List<Employee> all = new ArrayList<>();
+        for (Company company : companies) {
+            all.addAll(company.getEmployees());
+        }
+        // newest first and the order of the list on equal days: sort by inverted day, then by position,
+        // ~day reverses the order of days and unlike -day cannot overflow
+        long[] keys = new long[all.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) ~epochDay(all.get(i)) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] days = new int[keys.length];
+        Employee[] employees = new Employee[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            employees[i] = all.get((int) keys[i]);
+            days[i] = epochDay(employees[i]);
+        }
+        return new HiredOnIndex(days, employees);
+    }
+
+    /**
+     * @throws NullPointerException if the employee has no hire date
+     * @throws ArithmeticException if the hire date is out of range, see {@link #epochDay}
+     */
+    public synchronized void add(Employee employee){
+        int day = epochDay(employee);
+        if(deltaSize == deltaDays.length) merge();
+        // after the employees hired on the same day, they were added earlier
+        int position = firstBefore(deltaDays, deltaSize, day);
+        System.arraycopy(deltaDays, position, deltaDays, position + 1, deltaSize - position);
+        System.arraycopy(deltaEmployees, position, deltaEmployees, position + 1, deltaSize - position);
+        deltaDays[position] = day;
+        deltaEmployees[position] = employee;
+        deltaSize++;
+    }
+
+    public synchronized int size(){
+        return days.length + deltaSize;
+    }
+
+    /**
+     * @return number of employees hired between the dates, both inclusive
+     */
+    public synchronized int countBetween(LocalDate from, LocalDate to){
+        int newest = clamp(to);
+        int oldest = clamp(from);
+        if(oldest > newest) return 0;
+        return firstBefore(days, days.length, oldest) - firstBefore(days, days.length, newest + 1)
+                + firstBefore(deltaDays, deltaSize, oldest) - firstBefore(deltaDays, deltaSize, newest + 1);
+    }
+
+    /**
+     * Passes the employees hired between the dates, both inclusive, to the action, newest first.
+     * The action runs while the index is locked and must not change it.
+     */
+    public synchronized void forEachBetween(LocalDate from, LocalDate to, Consumer<? super Employee> action){
+        int newest = clamp(to);
+        int oldest = clamp(from);
+        if(oldest > newest) return;
+        int main = firstBefore(days, days.length, newest + 1);
+        int mainEnd = firstBefore(days, days.length, oldest);
+        int delta = firstBefore(deltaDays, deltaSize, newest + 1);
+        int deltaEnd = firstBefore(deltaDays, deltaSize, oldest);
+        while(main < mainEnd || delta < deltaEnd){
+            // on the same day the main arrays go first, everything in the delta was added later
+            if(delta == deltaEnd || (main < mainEnd && days[main] >= deltaDays[delta])){
+                action.accept(employees[main++]);
+            }
+            else{
+                action.accept(deltaEmployees[delta++]);
+            }
+        }
+    }
+
+    /**
+     * @return employees hired between the dates, both inclusive, newest first
+     */
+    public synchronized List<Employee> between(LocalDate from, LocalDate to){
+        List<Employee> result = new ArrayList<>(countBetween(from, to));
+        forEachBetween(from, to, result::add);
+        return result;
+    }
+
+    /**
+     * @return up to {@code n} most recently hired employees, newest first
+     */
+    public synchronized List<Employee> newest(int n){
+        if(n < 0) throw new IllegalArgumentException("N must not be negative");
+        List<Employee> result = new ArrayList<>(Math.min(n, size()));
+        int main = 0;
+        int delta = 0;
+        while(result.size() < n && (main < days.length || delta < deltaSize)){
+            if(delta == deltaSize || (main < days.length && days[main] >= deltaDays[delta])){
+                result.add(employees[main++]);
+            }
+            else{
+                result.add(deltaEmployees[delta++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges the delta into the main arrays and sizes the next delta by the square root of the new main size.
+     */
+    private void merge(){
+        int size = days.length + deltaSize;
+        int[] mergedDays = new int[size];
+        Employee[] mergedEmployees = new Employee[size];
+        int main = 0;
+        int delta = 0;
+        for (int i = 0; i < size; i++) {
+            if(delta == deltaSize || (main < days.length && days[main] >= deltaDays[delta])){
+                mergedDays[i] = days[main];
+                mergedEmployees[i] = employees[main++];
+            }
+            else{
+                mergedDays[i] = deltaDays[delta];
+                mergedEmployees[i] = deltaEmployees[delta++];
+            }
+        }
+        days = mergedDays;
+        employees = mergedEmployees;
+        int capacity = Math.max(MIN_DELTA, (int) Math.sqrt(size));
+        deltaDays = new int[capacity];
+        deltaEmployees = new Employee[capacity];
+        deltaSize = 0;
+    }
+
+    /**
+     * @return index of the first of the newest-first days that is older than the day, {@code size} if none is
+     */
+    private static int firstBefore(int[] days, int size, int day){
+        int low = 0;
+        int high = size;
+        while(low < high){
+            int middle = (low + high) >>> 1;
+            if(days[middle] >= day) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @throws ArithmeticException if the hire date is more than about five million years away
+     */
+    private static int epochDay(Employee employee){
+        LocalDate hiredOn = Objects.requireNonNull(employee.getHiredOn(), "hiredOn");
+        long day = hiredOn.toEpochDay();
+        if(day < Integer.MIN_VALUE || day > LAST_DAY) throw new ArithmeticException("Hire date out of range: " + hiredOn);
+        return (int) day;
+    }
+
+    /**
+     * Epoch day of a query bound, clamped to the days an employee can have, so any date can be asked for.
+     */
+    private static int clamp(LocalDate date){
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(LAST_DAY, date.toEpochDay()));
+    }
+}
@@ -0,0 +1,41 @@
+package edu.wz.streamsapi.parse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Read-only bytes addressed with {@code long} offsets, an array on the heap or a {@link MappedFile}.
+ * Reads never move any shared position, so any number of threads can read at once.
+ */
+interface ByteSource {
+
+    long size();
+
+    byte get(long offset);
+
+    /**
+     * @return the bytes in {@code [from, to)}, closing the stream leaves the source as it is
+     */
+    InputStream open(long from, long to);
+
+    static ByteSource of(byte[] bytes){
+        return new ByteSource() {
+            @Override
+            public long size() {
+                return bytes.length;
+            }
+
+            @Override
+            public byte get(long offset) {
+                return bytes[Math.toIntExact(offset)];
+            }
+
+            @Override
+            public InputStream open(long from, long to) {
+                Objects.checkFromToIndex(from, to, bytes.length);
+                return new ByteArrayInputStream(bytes, (int) from, (int) (to - from));
+            }
+        };
+    }
+}
@@ -12,7 +12,7 @@ public class CompanyFiller implements BiConsumer<JsonNode, Company> {
         company.setName(companyNode.get("name").asText());
         company.setAddress(companyNode.get("address").asText());
         company.setAbout(companyNode.get("about").asText());
-        company.setLatitude(companyNode.get("longitude").asDouble());
+        company.setLatitude(companyNode.get("latitude").asDouble());
         company.setLongitude(companyNode.get("longitude").asDouble());
     }
 }
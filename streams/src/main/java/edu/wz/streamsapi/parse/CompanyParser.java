@@ -0,0 +1,83 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a company with its employees straight from the token stream, the counterpart of {@link CompanyFiller}
+ * that builds no {@link com.fasterxml.jackson.databind.JsonNode}. Fields are dispatched by a switch on the name
+ * and unknown fields are skipped.
+ */
+public class CompanyParser {
+
+    private final EmployeeParser employeeParser = new EmployeeParser();
+
+    /**
+     * Reads the object the parser stands on, the parser is left on its END_OBJECT.
+     */
+    public Company read(JsonParser parser) throws IOException {
+        return read(parser, null);
+    }
+
+    /**
+     * Reads the company the parser stands on, but only skips over its employees and remembers where they are.
+     * The parser has to read {@code source} from its very beginning, so that its offsets are offsets in the source.
+     */
+    LazyCompany readLazily(JsonParser parser, ByteSource source) throws IOException {
+        return (LazyCompany) read(parser, source);
+    }
+
+    private Company read(JsonParser parser, ByteSource source) throws IOException {
+        if(parser.currentToken() != JsonToken.START_OBJECT){
+            throw new JsonParseException(parser, "Unexpected data format, a company object expected");
+        }
+        Company company = source == null ? new Company() : new LazyCompany();
+        company.setEmployees(new ArrayList<>());
+        String field;
+        while((field = parser.nextFieldName()) != null){
+            parser.nextToken();
+            switch (field) {
+                case "_id" -> company.setId(parser.getValueAsString());
+                case "name" -> company.setName(parser.getValueAsString());
+                case "employees" -> {
+                    if(source == null) company.setEmployees(readEmployees(parser));
+                    else skipEmployees(parser, source, (LazyCompany) company);
+                }
+                case "address" -> company.setAddress(parser.getValueAsString());
+                case "about" -> company.setAbout(parser.getValueAsString());
+                case "latitude" -> company.setLatitude(parser.getValueAsDouble());
+                case "longitude" -> company.setLongitude(parser.getValueAsDouble());
+                default -> parser.skipChildren();
+            }
+        }
+        return company;
+    }
+
+    private static void skipEmployees(JsonParser parser, ByteSource source, LazyCompany company) throws IOException {
+        if(parser.currentToken() != JsonToken.START_ARRAY){
+            throw new JsonParseException(parser, "Unexpected data format, an array of employees expected");
+        }
+        long from = parser.getTokenLocation().getByteOffset();
+        parser.skipChildren();
+        long to = parser.getCurrentLocation().getByteOffset();
+        company.setUnparsedEmployees(source, from, to);
+    }
+
+    private List<Employee> readEmployees(JsonParser parser) throws IOException {
+        if(parser.currentToken() != JsonToken.START_ARRAY){
+            throw new JsonParseException(parser, "Unexpected data format, an array of employees expected");
+        }
+        List<Employee> employees = new ArrayList<>();
+        while(parser.nextToken() != JsonToken.END_ARRAY){
+            employees.add(employeeParser.read(parser));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,212 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a JSON array of companies one company at a time with the streaming {@link JsonParser}.
+ * Only the current company is in memory, so memory use does not depend on the size of the input.
+ * <pre>{@code
+ * try(Stream<Company> companies = new CompanyReader().stream(input)){
+ *     companies.filter(...)
+ * }
+ * }</pre>
+ */
+public class CompanyReader {
+
+    private final ObjectMapper mapper;
+
+    private final CompanyFiller companyFiller = new CompanyFiller();
+
+    private final EmployeeFiller employeeFiller = new EmployeeFiller();
+
+    private final CompanyParser companyParser = new CompanyParser();
+
+    public CompanyReader(){
+        this(new ObjectMapper());
+    }
+
+    public CompanyReader(ObjectMapper mapper){
+        this.mapper = mapper;
+    }
+
+    /**
+     * Passes the companies to the action in the order they appear and closes the input.
+     */
+    public void forEach(InputStream input, Consumer<? super Company> action) throws IOException {
+        forEach(mapper.getFactory().createParser(input), action);
+    }
+
+    /**
+     * Memory-maps the file, see {@link MappedFileInputStream}.
+     * The byte-based parser reads it without charset decoding.
+     */
+    public void forEach(Path path, Consumer<? super Company> action) throws IOException {
+        forEach(new MappedFileInputStream(path), action);
+    }
+
+    /**
+     * Loads the companies with their repeated values shared, see {@link Deduplicator}.
+     * @return everything the deduplicator has saved, this input included
+     */
+    public Deduplicator.Savings forEach(InputStream input, Deduplicator deduplicator, Consumer<? super Company> action) throws IOException {
+        forEach(input, company -> action.accept(deduplicator.apply(company)));
+        return deduplicator.savings();
+    }
+
+    public Deduplicator.Savings forEach(Path path, Deduplicator deduplicator, Consumer<? super Company> action) throws IOException {
+        forEach(path, company -> action.accept(deduplicator.apply(company)));
+        return deduplicator.savings();
+    }
+
+    /**
+     * For input that is already text. Prefer the byte-based overloads, a reader decodes every byte into chars first.
+     */
+    public void forEach(Reader input, Consumer<? super Company> action) throws IOException {
+        forEach(mapper.getFactory().createParser(input), action);
+    }
+
+    /**
+     * Lazy stream of the companies, the next company is parsed only when the stream asks for it.
+     * Closing the stream closes the input, parse errors surface as {@link UncheckedIOException}.
+     */
+    public Stream<Company> stream(InputStream input) throws IOException {
+        JsonParser parser = open(mapper.getFactory().createParser(input));
+        Spliterator<Company> companies = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Company> action) {
+                try{
+                    if(parser.nextToken() != JsonToken.START_OBJECT){
+                        expectEndOfArray(parser);
+                        return false;
+                    }
+                    action.accept(readCompany(parser));
+                    return true;
+                }
+                catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(companies, false).onClose(() -> {
+            try{
+                parser.close();
+            }
+            catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Lazy stream over the memory-mapped file, see {@link #forEach(Path, Consumer)}.
+     */
+    public Stream<Company> stream(Path path) throws IOException {
+        return stream(new MappedFileInputStream(path));
+    }
+
+    /**
+     * Reads the companies but leaves their employees unparsed until they are asked for, see {@link LazyCompany}.
+     * Queries that only look at the companies themselves never pay for building employees.
+     */
+    public List<Company> readLazily(byte[] json) throws IOException {
+        return readLazily(ByteSource.of(json));
+    }
+
+    /**
+     * Memory-maps the file, the unparsed employees stay in the mapping instead of on the heap and the file may be
+     * larger than 2 GiB. The file must not change while companies read from it are not materialized.
+     */
+    public List<Company> readLazily(Path path) throws IOException {
+        return readLazily(MappedFile.map(path));
+    }
+
+    List<Company> readLazily(ByteSource json) throws IOException {
+        List<Company> companies = new ArrayList<>();
+        try(JsonParser parser = open(mapper.getFactory().createParser(json.open(0, json.size())))){
+            while(parser.nextToken() == JsonToken.START_OBJECT){
+                companies.add(companyParser.readLazily(parser, json));
+            }
+            expectEndOfArray(parser);
+        }
+        return companies;
+    }
+
+    /**
+     * Maps an already parsed company node, employees included.
+     */
+    public Company toCompany(JsonNode companyNode){
+        Company company = new Company();
+        companyFiller.accept(companyNode, company);
+        List<Employee> employees = new ArrayList<>(companyNode.get("employees").size());
+        companyNode.get("employees").elements().forEachRemaining(employeeNode -> {
+            Employee employee = new Employee();
+            employeeFiller.accept(employeeNode, employee);
+            employees.add(employee);
+        });
+        company.setEmployees(employees);
+        return company;
+    }
+
+    private void forEach(JsonParser input, Consumer<? super Company> action) throws IOException {
+        try(JsonParser parser = open(input)){
+            while(parser.nextToken() == JsonToken.START_OBJECT){
+                action.accept(readCompany(parser));
+            }
+            expectEndOfArray(parser);
+        }
+    }
+
+    /**
+     * Moves the parser into the array of companies, closes it and with it the input if that fails.
+     */
+    private JsonParser open(JsonParser parser) throws IOException {
+        try{
+            if(parser.nextToken() != JsonToken.START_ARRAY){
+                throw new JsonParseException(parser, "Unexpected data format, an array of companies expected");
+            }
+            return parser;
+        }
+        catch (IOException | RuntimeException e){
+            try{
+                parser.close();
+            }
+            catch (IOException closing){
+                e.addSuppressed(closing);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the company the parser stands on and nothing more, straight from the tokens.
+     */
+    Company readCompany(JsonParser parser) throws IOException {
+        return companyParser.read(parser);
+    }
+
+    private static void expectEndOfArray(JsonParser parser) throws IOException {
+        if(parser.currentToken() != JsonToken.END_ARRAY){
+            throw new JsonParseException(parser, "Unexpected data format, a company object expected");
+        }
+    }
+}
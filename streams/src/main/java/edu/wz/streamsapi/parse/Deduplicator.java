@@ -0,0 +1,201 @@
+package edu.wz.streamsapi.parse;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Optional loading stage that makes equal values of freshly parsed companies share one instance, so a large
+ * resident {@code List<Company>} keeps one copy of every repeated value instead of one per record.
+ * <ul>
+ *     <li>hire dates go through a direct-mapped cache keyed by epoch day,</li>
+ *     <li>salaries through a direct-mapped cache keyed by their value,</li>
+ *     <li>the string fields picked by {@link Field} through a bounded string pool, by default only company names;
+ *     ids are unique and left alone,</li>
+ *     <li>genders are enum constants and shared already.</li>
+ * </ul>
+ * Caches and pool are bounded: a date or salary slot holds the last value mapped to it, a full pool stops taking
+ * new strings but keeps handing out the ones it has. Pool only fields with few distinct values, a field that is
+ * unique per record, like descriptions or phones usually are, fills the pool without sharing anything.
+ * {@link #savings()} estimates the heap no longer held, assuming compressed references and 8 byte alignment.
+ * <pre>{@code
+ * Deduplicator deduplicator = new Deduplicator(EnumSet.of(Field.COMPANY_NAME, Field.ADDRESS));
+ * Deduplicator.Savings savings = companyReader.forEach(path, deduplicator, companies::add);
+ * }</pre>
+ * Not thread safe, use one per loading thread.
+ */
+public class Deduplicator implements UnaryOperator<Company> {
+
+    private static final int DEFAULT_CACHE_SIZE = 1 << 14;
+    private static final int DEFAULT_POOL_SIZE = 1 << 16;
+
+    // LocalDate: header and int year, short month, short day
+    private static final int DATE_BYTES = 24;
+    // BigDecimal with a compact value: header, intVal, scale, precision, stringCache and long intCompact
+    private static final int DECIMAL_BYTES = 40;
+    // String: header, value, hash, coder, hashIsZero; the byte[] adds its own header
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * String fields that may go through the pool.
+     */
+    public enum Field {
+        COMPANY_NAME, ADDRESS, ABOUT, EMPLOYEE_NAME, PHONE
+    }
+
+    private final LocalDate[] dates;
+    private final BigDecimal[] salaries;
+    private final Map<String, String> strings;
+    private final int poolSize;
+    private final boolean companyNames;
+    private final boolean addresses;
+    private final boolean abouts;
+    private final boolean employeeNames;
+    private final boolean phones;
+
+    private long datesShared;
+    private long salariesShared;
+    private long stringsShared;
+    private long savedBytes;
+
+    /**
+     * Pools company names only.
+     */
+    public Deduplicator(){
+        this(EnumSet.of(Field.COMPANY_NAME));
+    }
+
+    public Deduplicator(Set<Field> pooled){
+        this(pooled, DEFAULT_CACHE_SIZE, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param pooled string fields that go through the pool
+     * @param cacheSize slots of the date and the salary cache, rounded up to a power of two
+     * @param poolSize most strings the pool keeps
+     */
+    public Deduplicator(Set<Field> pooled, int cacheSize, int poolSize){
+        if(cacheSize <= 0) throw new IllegalArgumentException("Cache size must be greater than 0");
+        if(poolSize < 0) throw new IllegalArgumentException("Pool size must not be negative");
+        int slots = cacheSize == 1 ? 1 : Integer.highestOneBit(cacheSize - 1) << 1;
+        this.dates = new LocalDate[slots];
+        this.salaries = new BigDecimal[slots];
+        this.strings = new HashMap<>();
+        this.poolSize = poolSize;
+        this.companyNames = pooled.contains(Field.COMPANY_NAME);
+        this.addresses = pooled.contains(Field.ADDRESS);
+        this.abouts = pooled.contains(Field.ABOUT);
+        this.employeeNames = pooled.contains(Field.EMPLOYEE_NAME);
+        this.phones = pooled.contains(Field.PHONE);
+    }
+
+    /**
+     * Replaces the values of the company and its employees in place. The employees of a {@link LazyCompany} that
+     * are not parsed yet are left alone, building them here would defeat the lazy mode.
+     * @return the same company
+     */
+    @Override
+    public Company apply(Company company) {
+        if(companyNames) company.setName(string(company.getName()));
+        if(addresses) company.setAddress(string(company.getAddress()));
+        if(abouts) company.setAbout(string(company.getAbout()));
+        boolean unparsed = company instanceof LazyCompany lazy && !lazy.isMaterialized();
+        if(!unparsed && company.getEmployees() != null){
+            for (Employee employee : company.getEmployees()) {
+                if(employeeNames) employee.setName(string(employee.getName()));
+                if(phones) employee.setPhone(string(employee.getPhone()));
+                employee.setHiredOn(date(employee.getHiredOn()));
+                employee.setSalary(salary(employee.getSalary()));
+            }
+        }
+        return company;
+    }
+
+    public LocalDate date(LocalDate date){
+        if(date == null) return null;
+        long epochDay = date.toEpochDay();
+        int slot = (int) (epochDay ^ (epochDay >>> 32)) & (dates.length - 1);
+        LocalDate cached = dates[slot];
+        if(cached != null && cached != date && cached.toEpochDay() == epochDay){
+            datesShared++;
+            savedBytes += DATE_BYTES;
+            return cached;
+        }
+        dates[slot] = date;
+        return date;
+    }
+
+    /**
+     * Only salaries with a scale of zero that fit a long are cached, others are returned as they are.
+     */
+    public BigDecimal salary(BigDecimal salary){
+        if(salary == null || salary.scale() != 0 || salary.precision() > 18) return salary;
+        long value = salary.longValue();
+        int slot = (int) (value ^ (value >>> 32)) & (salaries.length - 1);
+        BigDecimal cached = salaries[slot];
+        if(cached != null && cached != salary && cached.longValue() == value){
+            salariesShared++;
+            savedBytes += DECIMAL_BYTES;
+            return cached;
+        }
+        salaries[slot] = salary;
+        return salary;
+    }
+
+    public String string(String value){
+        if(value == null) return null;
+        String pooled = strings.get(value);
+        if(pooled == null){
+            if(strings.size() < poolSize) strings.put(value, value);
+            return value;
+        }
+        if(pooled != value){
+            stringsShared++;
+            savedBytes += STRING_BYTES + align(ARRAY_HEADER_BYTES + (long) value.length() * (isLatin1(value) ? 1 : 2));
+        }
+        return pooled;
+    }
+
+    /**
+     * @return what was shared so far
+     */
+    public Savings savings(){
+        return new Savings(datesShared, salariesShared, stringsShared, savedBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "Deduplicator{" + savings() + "}";
+    }
+
+    /**
+     * Values replaced by a shared instance, and the estimated bytes of the replaced duplicates. They are garbage
+     * once nothing else refers to them.
+     */
+    public record Savings(long datesShared, long salariesShared, long stringsShared, long savedBytes) {
+        @Override
+        public String toString() {
+            return "dates=%d, salaries=%d, strings=%d, saved=%d KiB"
+                    .formatted(datesShared, salariesShared, stringsShared, savedBytes >> 10);
+        }
+    }
+
+    private static boolean isLatin1(String value){
+        for (int i = 0; i < value.length(); i++) {
+            if(value.charAt(i) > 0xFF) return false;
+        }
+        return true;
+    }
+
+    private static long align(long bytes){
+        return (bytes + 7) & ~7L;
+    }
+}
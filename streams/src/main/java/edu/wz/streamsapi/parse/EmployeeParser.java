@@ -0,0 +1,79 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Reads an employee straight from the token stream, the counterpart of {@link EmployeeFiller} that builds no
+ * {@link com.fasterxml.jackson.databind.JsonNode}. Fields are dispatched by a switch on the name, values are
+ * converted the same way the filler converts them and unknown fields are skipped.
+ */
+public class EmployeeParser {
+
+    /**
+     * Reads the object the parser stands on, the parser is left on its END_OBJECT.
+     */
+    public Employee read(JsonParser parser) throws IOException {
+        if(parser.currentToken() != JsonToken.START_OBJECT){
+            throw new JsonParseException(parser, "Unexpected data format, an employee object expected");
+        }
+        Employee employee = new Employee();
+        String field;
+        while((field = parser.nextFieldName()) != null){
+            parser.nextToken();
+            switch (field) {
+                case "_id" -> employee.setId(parser.getValueAsString());
+                case "name" -> employee.setName(parser.getValueAsString());
+                case "age" -> employee.setAge(parser.getValueAsInt());
+                case "phone" -> employee.setPhone(parser.getValueAsString());
+                case "salary" -> employee.setSalary(BigDecimal.valueOf(parser.getValueAsInt()));
+                case "hiredOn" -> employee.setHiredOn(parseDate(parser.getValueAsString()));
+                case "gender" -> employee.setGender(parseGender(parser.getValueAsString()));
+                default -> parser.skipChildren();
+            }
+        }
+        return employee;
+    }
+
+    /**
+     * yyyy-MM-dd is read digit by digit, anything else goes through {@link LocalDate#parse}.
+     */
+    static LocalDate parseDate(String text){
+        if(text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-'){
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            if(year >= 0 && month >= 0 && day >= 0) return LocalDate.of(year, month, day);
+        }
+        return LocalDate.parse(text);
+    }
+
+    /**
+     * @return the number or -1 if there is something else than digits
+     */
+    private static int digits(String text, int from, int to){
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if(digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static Employee.Gender parseGender(String text){
+        return switch (text) {
+            case "male" -> Employee.Gender.MALE;
+            case "female" -> Employee.Gender.FEMALE;
+            case "other" -> Employee.Gender.OTHER;
+            default -> Enum.valueOf(Employee.Gender.class, text.toUpperCase(Locale.ROOT));
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A company whose employees stay unparsed JSON until {@link #getEmployees()} is called for the first time.
+ * Until then the company only holds the {@code long} offsets of its employee array in the source, shared by all
+ * companies read from the same input: a byte array, or a memory-mapped file that is not on the heap at all.
+ * The source stays reachable as long as one of them is not materialized.
+ * <p>
+ * Equality, hash code and string form go through {@link #getEmployees()} and materialize the employees.
+ * Setting the employees drops the unparsed ones.
+ */
+public class LazyCompany extends Company {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final EmployeeParser EMPLOYEE_PARSER = new EmployeeParser();
+
+    private volatile ByteSource source;
+    private long from;
+    private long to;
+
+    LazyCompany(){
+    }
+
+    /**
+     * The employee array lies in {@code [from, to)} of the source.
+     */
+    void setUnparsedEmployees(ByteSource source, long from, long to){
+        this.from = from;
+        this.to = to;
+        this.source = source;
+    }
+
+    /**
+     * @return whether the employees have been parsed or set
+     */
+    public boolean isMaterialized(){
+        return source == null;
+    }
+
+    /**
+     * Parses the employees on the first call.
+     * @throws UncheckedIOException if the unparsed employees turn out not to be valid JSON
+     */
+    @Override
+    public List<Employee> getEmployees() {
+        if(source != null) materialize();
+        return super.getEmployees();
+    }
+
+    @Override
+    public void setEmployees(List<Employee> employees) {
+        synchronized (this){
+            source = null;
+            super.setEmployees(employees);
+        }
+    }
+
+    private synchronized void materialize(){
+        ByteSource json = source;
+        if(json == null) return;
+        List<Employee> employees = new ArrayList<>();
+        try(JsonParser parser = FACTORY.createParser(json.open(from, to))){
+            parser.nextToken();
+            while(parser.nextToken() != JsonToken.END_ARRAY){
+                employees.add(EMPLOYEE_PARSER.read(parser));
+            }
+        }
+        catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        super.setEmployees(employees);
+        source = null;
+    }
+}
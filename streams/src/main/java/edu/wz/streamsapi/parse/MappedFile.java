@@ -0,0 +1,79 @@
+package edu.wz.streamsapi.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A whole file mapped read-only with {@link FileChannel#map}. A single mapping can not be larger than 2 GiB,
+ * so the file is mapped in segments and addressed with {@code long} offsets across them.
+ * <p>
+ * Mapping only reserves address space, pages are read from the page cache when they are touched and never count
+ * against the heap. The file is closed as soon as it is mapped, the mappings are released by the garbage collector
+ * once nothing refers to the {@code MappedFile} any more.
+ */
+final class MappedFile implements ByteSource {
+
+    private static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final long segmentBytes;
+    private final long size;
+
+    private MappedFile(MappedByteBuffer[] segments, long segmentBytes, long size){
+        this.segments = segments;
+        this.segmentBytes = segmentBytes;
+        this.size = size;
+    }
+
+    static MappedFile map(Path path) throws IOException {
+        return map(path, DEFAULT_SEGMENT_BYTES);
+    }
+
+    static MappedFile map(Path path, long segmentBytes) throws IOException {
+        if(segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid segment size");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[Math.toIntExact((size + segmentBytes - 1) / segmentBytes)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * segmentBytes;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentBytes, size - start));
+            }
+            return new MappedFile(segments, segmentBytes, size);
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long offset) {
+        Objects.checkIndex(offset, size);
+        return segments[(int) (offset / segmentBytes)].get((int) (offset % segmentBytes));
+    }
+
+    /**
+     * Copies bytes from the offset on, but not past the end of the segment the offset is in.
+     * @return number of bytes copied, at least one if {@code length} is not zero
+     */
+    int get(long offset, byte[] bytes, int from, int length){
+        Objects.checkIndex(offset, size);
+        MappedByteBuffer segment = segments[(int) (offset / segmentBytes)];
+        int index = (int) (offset % segmentBytes);
+        int count = Math.min(length, segment.capacity() - index);
+        segment.get(index, bytes, from, count);
+        return count;
+    }
+
+    @Override
+    public InputStream open(long from, long to) {
+        Objects.checkFromToIndex(from, to, size);
+        return new MappedFileInputStream(this, from, to);
+    }
+}
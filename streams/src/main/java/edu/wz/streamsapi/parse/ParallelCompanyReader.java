@@ -0,0 +1,240 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wz.streamsapi.domain.Company;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses a JSON array of companies on a {@link ForkJoinPool}.
+ * <p>
+ * The input is cut into chunks of roughly {@code chunkBytes} at plain byte offsets, without looking at it first.
+ * Every chunk task snaps its offset forward to the first byte that looks like the start of a company, an opening
+ * brace preceded by a closing brace and a comma, and parses companies with a {@link CompanyReader} from there until
+ * one starts in the next chunk. Offsets are {@code long}, a file is read from its {@link MappedFile} and never has
+ * to be on the heap as a whole.
+ * <p>
+ * The same pattern occurs between nested objects, two employees for example, and inside strings. A task that
+ * started between nested objects sees their array close before the end of the input and looks further. Whatever
+ * is still wrong is caught when the chunks are joined in order: a chunk is only taken if it starts exactly where
+ * the chunk before it stopped, otherwise its range is parsed again from there.
+ */
+public class ParallelCompanyReader {
+
+    private static final int DEFAULT_CHUNK_BYTES = 256 * 1024;
+
+    // larger inputs get larger chunks rather than more of them
+    private static final int MAX_CHUNKS = 1 << 16;
+
+    private static final byte[] OPEN_ARRAY = {'['};
+
+    private static final Chunk EMPTY = new Chunk(-1, -1, true, List.of(), null);
+
+    private final CompanyReader companyReader;
+    private final ObjectMapper mapper;
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+
+    public ParallelCompanyReader(){
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    public ParallelCompanyReader(ForkJoinPool pool, int chunkBytes){
+        if(chunkBytes <= 0) throw new IllegalArgumentException("Chunk size must be greater than 0");
+        this.mapper = new ObjectMapper();
+        this.companyReader = new CompanyReader(mapper);
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public List<Company> read(Path path) throws IOException {
+        return read(MappedFile.map(path));
+    }
+
+    public List<Company> read(byte[] json) throws IOException {
+        return read(ByteSource.of(json));
+    }
+
+    /**
+     * @return the companies in the order they appear in the input
+     */
+    List<Company> read(ByteSource json) throws IOException {
+        long first = arrayStart(json);
+        long length = json.size() - first;
+        long step = Math.max(chunkBytes, (length + MAX_CHUNKS - 1) / MAX_CHUNKS);
+        int count = (int) Math.max(1, (length + step - 1) / step);
+        Chunk[] chunks = new Chunk[count];
+        pool.invoke(new ChunkTask(json, first, step, chunks, 0, count));
+
+        List<Company> companies = new ArrayList<>();
+        long expected = first;
+        boolean closed = false;
+        for (int i = 0; i < count && !closed; i++) {
+            long limit = limit(first, step, i, count);
+            // the chunk before ran over the whole of this one
+            if(expected >= limit) continue;
+            Chunk chunk = chunks[i].start == expected ? chunks[i] : parse(json, expected, limit);
+            if(chunk.failure != null) throw chunk.failure;
+            companies.addAll(chunk.companies);
+            expected = chunk.end;
+            closed = chunk.closed;
+        }
+        return Collections.unmodifiableList(companies);
+    }
+
+    /**
+     * Parses the companies from {@code start} on, up to the first one that starts at or after {@code limit}.
+     */
+    private Chunk parse(ByteSource json, long start, long limit){
+        List<Company> companies = new ArrayList<>();
+        // the synthetic bracket puts the parser inside an array, so the commas between companies are expected
+        try(JsonParser parser = mapper.getFactory().createParser(new SequenceInputStream(
+                new ByteArrayInputStream(OPEN_ARRAY), json.open(start, json.size())))){
+            parser.nextToken();
+            JsonToken token;
+            while((token = parser.nextToken()) == JsonToken.START_OBJECT){
+                long offset = offset(parser, start);
+                if(offset >= limit) return new Chunk(start, offset, false, companies, null);
+                companies.add(companyReader.readCompany(parser));
+            }
+            if(token != JsonToken.END_ARRAY) throw unexpectedFormat("a company object expected", offset(parser, start));
+            return new Chunk(start, offset(parser, start) + 1, true, companies, null);
+        }
+        catch (JsonEOFException e){
+            return new Chunk(start, json.size(), true, companies,
+                    unexpectedFormat("the array of companies is not closed", json.size()));
+        }
+        catch (IOException e){
+            return new Chunk(start, json.size(), true, companies, e);
+        }
+    }
+
+    /**
+     * Parses a chunk that starts at {@code from}, an offset that may be anywhere inside a company.
+     */
+    private Chunk speculate(ByteSource json, long from, long limit){
+        long start = nextStart(json, from, limit);
+        while(start >= 0){
+            Chunk chunk = parse(json, start, limit);
+            if(chunk.failure != null || !chunk.closed || onlyWhitespace(json, chunk.end)) return chunk;
+            // an array of nested objects closed, no company starts before its end
+            start = nextStart(json, chunk.end, limit);
+        }
+        return EMPTY;
+    }
+
+    /**
+     * @return offset of the first brace in {@code [from, limit)} that may start a company, -1 if there is none
+     */
+    static long nextStart(ByteSource json, long from, long limit){
+        long end = Math.min(limit, json.size());
+        for (long i = from; i < end; i++) {
+            if(json.get(i) != '{') continue;
+            long comma = previousNonWhitespace(json, i);
+            if(comma < 0 || json.get(comma) != ',') continue;
+            long brace = previousNonWhitespace(json, comma);
+            if(brace >= 0 && json.get(brace) == '}') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return offset just after the bracket that opens the array of companies
+     */
+    private static long arrayStart(ByteSource json) throws IOException {
+        long i = 0;
+        // UTF-8 byte order mark
+        if(json.size() >= 3 && (json.get(0) & 0xFF) == 0xEF && (json.get(1) & 0xFF) == 0xBB && (json.get(2) & 0xFF) == 0xBF){
+            i = 3;
+        }
+        while(i < json.size() && isWhitespace(json.get(i))){
+            i++;
+        }
+        if(i == json.size() || json.get(i) != '[') throw unexpectedFormat("an array of companies expected", i);
+        return i + 1;
+    }
+
+    private static long limit(long first, long step, int chunk, int count){
+        return chunk == count - 1 ? Long.MAX_VALUE : first + (chunk + 1) * step;
+    }
+
+    private static long offset(JsonParser parser, long start){
+        return start + parser.getTokenLocation().getByteOffset() - OPEN_ARRAY.length;
+    }
+
+    private static long previousNonWhitespace(ByteSource json, long offset){
+        long i = offset - 1;
+        while(i >= 0 && isWhitespace(json.get(i))){
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean onlyWhitespace(ByteSource json, long from){
+        for (long i = from; i < json.size(); i++) {
+            if(!isWhitespace(json.get(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b){
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static JsonParseException unexpectedFormat(String expected, long offset){
+        return new JsonParseException(null, "Unexpected data format, %s at byte %d".formatted(expected, offset));
+    }
+
+    /**
+     * Companies parsed from {@code start}, and where the next chunk has to start: the offset of the first company
+     * after the limit, or just after the end of the array if it closed.
+     */
+    private record Chunk(long start, long end, boolean closed, List<Company> companies, IOException failure) {
+    }
+
+    private class ChunkTask extends RecursiveAction {
+        // fork/join tasks are serializable, this one is never serialized
+        private static final long serialVersionUID = 1L;
+
+        private final ByteSource json;
+        private final long first;
+        private final long step;
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(ByteSource json, long first, long step, Chunk[] chunks, int from, int to){
+            this.json = json;
+            this.first = first;
+            this.step = step;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1){
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(json, first, step, chunks, from, middle),
+                        new ChunkTask(json, first, step, chunks, middle, to));
+                return;
+            }
+            long limit = limit(first, step, from, chunks.length);
+            // the first chunk starts right after the bracket, that is known to be right
+            chunks[from] = from == 0 ? parse(json, first, limit) : speculate(json, first + from * step, limit);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package edu.wz.streamsapi.snapshot;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary snapshot of parsed companies, loading it skips JSON tokenizing, {@link LocalDate#parse} and
+ * decimal parsing altogether.
+ * <p>
+ * Layout, all numbers big-endian:
+ * <pre>
+ * header     magic "CSNP", version (short), company count, employee count
+ * companies  per company: id, name, address, about, latitude, longitude
+ * employees  one column after another, each holding a value for every employee:
+ *            company (index of the company above), id, name, age, hiredOn (epoch day),
+ *            phone, salary scale (byte), salary (unscaled long), gender (ordinal byte)
+ * </pre>
+ * Records carry no length of their own, a reader has to go through every field in order.
+ * The company section doubles as the dictionary of company ids, an employee refers to its company by index.
+ * Strings are an int byte length followed by UTF-8 bytes, length -1 is null. A null date is stored as
+ * {@link Integer#MIN_VALUE}, so dates go from one day after it to {@link Integer#MAX_VALUE}, a null gender as -1 and a null salary as scale {@link Byte#MIN_VALUE}.
+ */
+public final class CompanySnapshot {
+
+    private static final int MAGIC = 0x43534E50;
+
+    private static final short VERSION = 1;
+
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+    private static final Employee.Gender[] GENDERS = Employee.Gender.values();
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private CompanySnapshot(){
+    }
+
+    public static void write(List<Company> companies, Path path) throws IOException {
+        try(OutputStream output = Files.newOutputStream(path)){
+            write(companies, output);
+        }
+    }
+
+    /**
+     * Writes the snapshot, the output is flushed but not closed.
+     * @throws IllegalArgumentException if a salary does not fit a long or its scale does not fit a byte,
+     *         or a hire date is more than about five million years away and its epoch day does not fit an int
+     */
+    public static void write(List<Company> companies, OutputStream output) throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        int[] companyIndexes = new int[16];
+        for (int i = 0; i < companies.size(); i++) {
+            List<Employee> companyEmployees = companies.get(i).getEmployees();
+            if(companyEmployees == null) continue;
+            for (Employee employee : companyEmployees) {
+                if(employees.size() == companyIndexes.length) companyIndexes = Arrays.copyOf(companyIndexes, companyIndexes.length * 2);
+                companyIndexes[employees.size()] = i;
+                employees.add(employee);
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(companies.size());
+        data.writeInt(employees.size());
+        for (Company company : companies) {
+            writeString(data, company.getId());
+            writeString(data, company.getName());
+            writeString(data, company.getAddress());
+            writeString(data, company.getAbout());
+            data.writeDouble(company.getLatitude());
+            data.writeDouble(company.getLongitude());
+        }
+        for (int i = 0; i < employees.size(); i++) {
+            data.writeInt(companyIndexes[i]);
+        }
+        for (Employee employee : employees) {
+            writeString(data, employee.getId());
+        }
+        for (Employee employee : employees) {
+            writeString(data, employee.getName());
+        }
+        for (Employee employee : employees) {
+            data.writeInt(employee.getAge());
+        }
+        for (Employee employee : employees) {
+            LocalDate hiredOn = employee.getHiredOn();
+            data.writeInt(hiredOn == null ? NULL_DATE : epochDay(hiredOn));
+        }
+        for (Employee employee : employees) {
+            writeString(data, employee.getPhone());
+        }
+        for (Employee employee : employees) {
+            BigDecimal salary = employee.getSalary();
+            data.writeByte(salary == null ? NULL_SCALE : scale(salary));
+        }
+        for (Employee employee : employees) {
+            BigDecimal salary = employee.getSalary();
+            data.writeLong(salary == null ? 0 : unscaled(salary));
+        }
+        for (Employee employee : employees) {
+            Employee.Gender gender = employee.getGender();
+            data.writeByte(gender == null ? -1 : gender.ordinal());
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads the file through a buffer of its own, so it is neither held on the heap as a whole nor limited in size.
+     */
+    public static List<Company> read(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            return read(new Input(channel, ByteBuffer.allocate(BUFFER_BYTES).flip(), channel.size()));
+        }
+    }
+
+    /**
+     * @return mutable companies with their employees, equal to the ones written
+     * @throws IOException if the bytes are not a snapshot or are truncated
+     */
+    public static List<Company> read(byte[] snapshot) throws IOException {
+        return read(new Input(null, ByteBuffer.wrap(snapshot), snapshot.length));
+    }
+
+    private static List<Company> read(Input input) throws IOException {
+        try{
+            if(input.getInt() != MAGIC) throw new IOException("Unexpected data format, not a company snapshot");
+            short version = input.getShort();
+            if(version != VERSION) throw new IOException("Unsupported snapshot version %d".formatted(version));
+            int companyCount = input.getInt();
+            int employeeCount = input.getInt();
+            if(companyCount < 0 || employeeCount < 0) throw new IOException("Unexpected data format, negative count");
+
+            List<Company> companies = new ArrayList<>((int) Math.min(companyCount, input.remaining()));
+            for (int i = 0; i < companyCount; i++) {
+                Company company = new Company();
+                company.setId(input.getString());
+                company.setName(input.getString());
+                company.setAddress(input.getString());
+                company.setAbout(input.getString());
+                company.setLatitude(input.getDouble());
+                company.setLongitude(input.getDouble());
+                company.setEmployees(new ArrayList<>());
+                companies.add(company);
+            }
+
+            Employee[] employees = new Employee[(int) Math.min(employeeCount, input.remaining())];
+            int[] companyIndexes = new int[employees.length];
+            for (int i = 0; i < employeeCount; i++) {
+                int index = input.getInt();
+                if(index < 0 || index >= companyCount) throw new IOException("Unexpected data format, company index %d".formatted(index));
+                companyIndexes[i] = index;
+                employees[i] = new Employee();
+            }
+            for (Employee employee : employees) {
+                employee.setId(input.getString());
+            }
+            for (Employee employee : employees) {
+                employee.setName(input.getString());
+            }
+            for (Employee employee : employees) {
+                employee.setAge(input.getInt());
+            }
+            for (Employee employee : employees) {
+                int epochDay = input.getInt();
+                employee.setHiredOn(epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay));
+            }
+            for (Employee employee : employees) {
+                employee.setPhone(input.getString());
+            }
+            byte[] scales = new byte[employeeCount];
+            for (int i = 0; i < employeeCount; i++) {
+                scales[i] = input.get();
+            }
+            for (int i = 0; i < employeeCount; i++) {
+                long unscaled = input.getLong();
+                employees[i].setSalary(scales[i] == NULL_SCALE ? null : BigDecimal.valueOf(unscaled, scales[i]));
+            }
+            for (Employee employee : employees) {
+                byte ordinal = input.get();
+                if(ordinal >= GENDERS.length) throw new IOException("Unexpected data format, gender %d".formatted(ordinal));
+                employee.setGender(ordinal < 0 ? null : GENDERS[ordinal]);
+            }
+            for (int i = 0; i < employeeCount; i++) {
+                companies.get(companyIndexes[i]).getEmployees().add(employees[i]);
+            }
+            return companies;
+        }
+        catch (EOFException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e){
+            throw new IOException("Unexpected data format, the snapshot is truncated", e);
+        }
+    }
+
+    /**
+     * {@link Integer#MIN_VALUE} stands for null, so it is not a valid day.
+     */
+    private static int epochDay(LocalDate date){
+        long day = date.toEpochDay();
+        if(day <= NULL_DATE || day > Integer.MAX_VALUE) throw new IllegalArgumentException("Hire date is out of range: " + date);
+        return (int) day;
+    }
+
+    private static byte scale(BigDecimal salary){
+        int scale = salary.scale();
+        if(scale <= NULL_SCALE || scale > Byte.MAX_VALUE) throw new IllegalArgumentException("Salary scale is out of range: " + salary);
+        return (byte) scale;
+    }
+
+    private static long unscaled(BigDecimal salary){
+        BigInteger unscaled = salary.unscaledValue();
+        if(unscaled.bitLength() > 63) throw new IllegalArgumentException("Salary does not fit a long: " + salary);
+        return unscaled.longValue();
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if(value == null){
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Big-endian values from a buffer that is refilled from the channel whenever it runs short.
+     * Without a channel the buffer holds the whole snapshot.
+     */
+    private static final class Input {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer;
+        private long unread;
+
+        private Input(ReadableByteChannel channel, ByteBuffer buffer, long size){
+            this.channel = channel;
+            this.buffer = buffer;
+            this.unread = size - buffer.remaining();
+        }
+
+        /**
+         * @return bytes not read yet, buffered or not
+         */
+        long remaining(){
+            return unread + buffer.remaining();
+        }
+
+        byte get() throws IOException {
+            require(Byte.BYTES);
+            return buffer.get();
+        }
+
+        short getShort() throws IOException {
+            require(Short.BYTES);
+            return buffer.getShort();
+        }
+
+        int getInt() throws IOException {
+            require(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            require(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        double getDouble() throws IOException {
+            require(Double.BYTES);
+            return buffer.getDouble();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if(length == -1) return null;
+            if(length < 0 || length > remaining()) throw new IOException("Unexpected data format, string length %d".formatted(length));
+            if(length <= buffer.capacity()){
+                require(length);
+                String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+                return value;
+            }
+            // longer than the buffer: what is buffered, then the rest straight from the channel
+            byte[] bytes = new byte[length];
+            int buffered = buffer.remaining();
+            buffer.get(bytes, 0, buffered);
+            ByteBuffer rest = ByteBuffer.wrap(bytes, buffered, length - buffered);
+            while(rest.hasRemaining()){
+                if(channel.read(rest) < 0) throw new EOFException();
+            }
+            unread -= length - buffered;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void require(int bytes) throws IOException {
+            if(buffer.remaining() >= bytes) return;
+            if(channel == null) throw new EOFException();
+            buffer.compact();
+            while(buffer.position() < bytes){
+                int read = channel.read(buffer);
+                if(read < 0){
+                    buffer.flip();
+                    throw new EOFException();
+                }
+                unread -= read;
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package edu.wz.streamsapi.stats;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Bounded heap of {@code int} ids that keeps the strongest ones offered, with the weakest kept id on top.
+ * A new id only competes with the top one, so offering {@code n} ids to a heap of capacity {@code k} costs
+ * O(n log k) time and O(k) memory.
+ * <p>
+ * The heap only moves ids around, what makes one id weaker than another is up to the caller's {@link Order}.
+ * An id may be a row of a column, or a slot in the caller's own arrays that hold the candidates; {@link #offer}
+ * tells which id dropped out, so its slot can be reused. Ties have to be broken by the order itself.
+ */
+public final class BoundedHeap {
+
+    /**
+     * Strength of ids, it has to be a strict total order.
+     */
+    @FunctionalInterface
+    public interface Order {
+        boolean weaker(int a, int b);
+    }
+
+    private final int[] ids;
+    private final Order order;
+    private int size;
+
+    /**
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public BoundedHeap(int capacity, Order order){
+        if(capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        this.ids = new int[capacity];
+        this.order = order;
+    }
+
+    /**
+     * @return the id that is not kept: -1 while the heap is not full, the offered id if it is not stronger than
+     *         the weakest one kept, otherwise the weakest one it replaced
+     */
+    public int offer(int id){
+        if(size < ids.length){
+            ids[size] = id;
+            siftUp(size++);
+            return -1;
+        }
+        if(size == 0 || !order.weaker(ids[0], id)) return id;
+        int dropped = ids[0];
+        ids[0] = id;
+        siftDown(0);
+        return dropped;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isFull(){
+        return size == ids.length;
+    }
+
+    /**
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int weakest(){
+        if(size == 0) throw new NoSuchElementException();
+        return ids[0];
+    }
+
+    /**
+     * Empties the heap.
+     * @return the ids it kept, strongest first
+     */
+    public int[] drain(){
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            ids[0] = ids[--size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private void siftUp(int i){
+        while(i > 0){
+            int parent = (i - 1) >>> 1;
+            if(!order.weaker(ids[i], ids[parent])) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i){
+        while(true){
+            int left = 2 * i + 1;
+            if(left >= size) return;
+            int weakest = left + 1 < size && order.weaker(ids[left + 1], ids[left]) ? left + 1 : left;
+            if(!order.weaker(ids[weakest], ids[i])) return;
+            swap(i, weakest);
+            i = weakest;
+        }
+    }
+
+    private void swap(int a, int b){
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
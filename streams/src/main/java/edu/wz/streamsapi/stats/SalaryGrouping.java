@@ -0,0 +1,74 @@
+package edu.wz.streamsapi.stats;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * One-pass salary grouping collectors. Every employee is visited once and lands in a {@link SalaryStatistics}
+ * picked by array index, parallel splits are merged index by index. Every value of the dimension is in the
+ * result, an empty group has an empty statistics with a zero average.
+ * <pre>{@code
+ * Map<String, Map<Employee.Gender, SalaryStatistics>> byCompanyAndGender = companies.parallelStream()
+ *         .collect(SalaryGrouping.perCompany(Dimension.of(Employee.Gender.class, Employee::getGender)));
+ * }</pre>
+ */
+public final class SalaryGrouping {
+
+    private SalaryGrouping(){
+    }
+
+    /**
+     * Groups employees by the dimension.
+     */
+    public static <K> Collector<Employee, ?, Map<K, SalaryStatistics>> by(Dimension<K> dimension){
+        return Collector.of(
+                () -> newGroups(dimension),
+                (groups, employee) -> groups[dimension.index(employee)].accept(employee.getSalary()),
+                SalaryGrouping::combine,
+                dimension::toMap,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Groups the employees of every company by the dimension, companies are keyed by id in encounter order.
+     * Companies with the same id end up in the same groups.
+     */
+    public static <K> Collector<Company, ?, Map<String, Map<K, SalaryStatistics>>> perCompany(Dimension<K> dimension){
+        return Collector.<Company, Map<String, SalaryStatistics[]>, Map<String, Map<K, SalaryStatistics>>>of(
+                LinkedHashMap::new,
+                (companies, company) -> {
+                    SalaryStatistics[] groups = companies.computeIfAbsent(company.getId(), id -> newGroups(dimension));
+                    for (Employee employee : company.getEmployees()) {
+                        groups[dimension.index(employee)].accept(employee.getSalary());
+                    }
+                },
+                (left, right) -> {
+                    right.forEach((id, groups) -> left.merge(id, groups, SalaryGrouping::combine));
+                    return left;
+                },
+                companies -> {
+                    Map<String, Map<K, SalaryStatistics>> result = new LinkedHashMap<>(companies.size() * 2);
+                    companies.forEach((id, groups) -> result.put(id, dimension.toMap(groups)));
+                    return result;
+                });
+    }
+
+    private static SalaryStatistics[] newGroups(Dimension<?> dimension){
+        SalaryStatistics[] groups = new SalaryStatistics[dimension.size()];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = new SalaryStatistics();
+        }
+        return groups;
+    }
+
+    private static SalaryStatistics[] combine(SalaryStatistics[] left, SalaryStatistics[] right){
+        for (int i = 0; i < left.length; i++) {
+            left[i].combine(right[i]);
+        }
+        return left;
+    }
+}
@@ -0,0 +1,133 @@
+package edu.wz.streamsapi.stats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Count, sum, min, max, mean and variance of whole-unit salaries in the spirit of
+ * {@link java.util.LongSummaryStatistics}. Salaries are accumulated as longs, {@link BigDecimal}
+ * is only created when a result is asked for.
+ * <p>
+ * The sum is exact and fails with {@link ArithmeticException} on overflow instead of wrapping around.
+ * The variance is kept with Welford's update and merged with Chan's formula, so parallel streams
+ * give the same result as sequential ones up to floating point rounding.
+ * <p>
+ * Not thread safe, as a collector every thread gets its own instance.
+ * <pre>{@code
+ * BigDecimal average = employees.stream()
+ *         .collect(SalaryStatistics.summarizing(Employee::getSalary))
+ *         .getAverage();
+ * }</pre>
+ */
+public class SalaryStatistics implements LongConsumer {
+
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private double mean;
+    private double m2;
+
+    /**
+     * Collects salaries, combining merges into the left statistics instead of allocating new ones.
+     */
+    public static Collector<BigDecimal, ?, SalaryStatistics> salaryStatistics(){
+        return Collector.of(SalaryStatistics::new, SalaryStatistics::accept, SalaryStatistics::combine,
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    public static <T> Collector<T, ?, SalaryStatistics> summarizing(Function<? super T, BigDecimal> salary){
+        return Collector.of(SalaryStatistics::new, (statistics, value) -> statistics.accept(salary.apply(value)),
+                SalaryStatistics::combine,
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @throws ArithmeticException if the salary has a fractional part, does not fit a long or the sum overflows
+     */
+    public void accept(BigDecimal salary){
+        accept(salary.longValueExact());
+    }
+
+    /**
+     * @throws ArithmeticException if the sum overflows
+     */
+    @Override
+    public void accept(long salary) {
+        sum = Math.addExact(sum, salary);
+        count++;
+        min = Math.min(min, salary);
+        max = Math.max(max, salary);
+        double delta = salary - mean;
+        mean += delta / count;
+        m2 += delta * (salary - mean);
+    }
+
+    /**
+     * Adds the other statistics to these ones.
+     * @return this
+     * @throws ArithmeticException if the sum overflows
+     */
+    public SalaryStatistics combine(SalaryStatistics other){
+        if(other.count == 0) return this;
+        long total = count + other.count;
+        sum = Math.addExact(sum, other.sum);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+        return this;
+    }
+
+    public long getCount(){
+        return count;
+    }
+
+    public BigDecimal getSum(){
+        return BigDecimal.valueOf(sum);
+    }
+
+    /**
+     * @return the lowest salary, null if there are none
+     */
+    public BigDecimal getMin(){
+        return count == 0 ? null : BigDecimal.valueOf(min);
+    }
+
+    /**
+     * @return the highest salary, null if there are none
+     */
+    public BigDecimal getMax(){
+        return count == 0 ? null : BigDecimal.valueOf(max);
+    }
+
+    /**
+     * @return the sum divided by the count rounded half up to whole units, zero if there are no salaries
+     */
+    public BigDecimal getAverage(){
+        if(count == 0) return BigDecimal.ZERO;
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return population variance, zero if there are no salaries
+     */
+    public double getVariance(){
+        return count == 0 ? 0 : m2 / count;
+    }
+
+    public double getStandardDeviation(){
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        return "SalaryStatistics{count=%d, sum=%d, min=%s, average=%s, max=%s, variance=%f}"
+                .formatted(count, sum, getMin(), getAverage(), getMax(), getVariance());
+    }
+}
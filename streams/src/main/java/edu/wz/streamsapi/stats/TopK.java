@@ -0,0 +1,92 @@
+package edu.wz.streamsapi.stats;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Collects the first {@code k} elements in comparator order, the same list {@code sorted(comparator).limit(k)}
+ * gives, ties included. Only {@code k} elements are ever kept: a bounded heap with the weakest kept element
+ * on top, so a stream of {@code n} elements costs O(n log k) time and O(k) memory instead of sorting all of them.
+ * Parallel partial heaps are merged by offering the elements of the right one to the left one.
+ * <pre>{@code
+ * List<Employee> newest = employees.parallelStream()
+ *         .collect(TopK.of(10, Comparator.comparing(Employee::getHiredOn).reversed()));
+ * }</pre>
+ */
+public final class TopK<T> {
+
+    private final Comparator<? super T> comparator;
+    private final BoundedHeap heap;
+    // one slot more than kept: the candidate goes into the spare slot before it competes
+    private final Object[] values;
+    // encounter order of the kept values, it breaks ties so that earlier values win like in a stable sort
+    private final long[] order;
+    private int spare;
+    private long seen;
+
+    private TopK(int k, Comparator<? super T> comparator){
+        this.comparator = comparator;
+        this.heap = new BoundedHeap(k, (a, b) -> beats(b, a));
+        this.values = new Object[k + 1];
+        this.order = new long[k + 1];
+        this.spare = k;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public static <T> Collector<T, ?, List<T>> of(int k, Comparator<? super T> comparator){
+        if(k < 0) throw new IllegalArgumentException("K must not be negative");
+        return Collector.of(() -> new TopK<T>(k, comparator), TopK::accept, TopK::merge, TopK::toList);
+    }
+
+    private void accept(T value){
+        offer(value, seen++);
+    }
+
+    /**
+     * Everything in the right heap was encountered after everything in this one.
+     */
+    private TopK<T> merge(TopK<T> right){
+        for (int slot : right.heap.drain()) {
+            offer(right.value(slot), seen + right.order[slot]);
+        }
+        seen += right.seen;
+        return this;
+    }
+
+    private void offer(T value, long position){
+        int slot = heap.isFull() ? spare : heap.size();
+        values[slot] = value;
+        order[slot] = position;
+        int dropped = heap.offer(slot);
+        if(dropped >= 0){
+            values[dropped] = null;
+            spare = dropped;
+        }
+    }
+
+    private List<T> toList(){
+        int[] slots = heap.drain();
+        Object[] result = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            result[i] = values[slots[i]];
+        }
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>) Arrays.asList(result);
+        return Collections.unmodifiableList(list);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(int slot){
+        return (T) values[slot];
+    }
+
+    private boolean beats(int slot, int other){
+        int compared = comparator.compare(value(slot), value(other));
+        return compared < 0 || (compared == 0 && order[slot] < order[other]);
+    }
+}
@@ -0,0 +1,253 @@
+package edu.wz.streamsapi.table;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import edu.wz.streamsapi.stats.BoundedHeap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Employees of all companies stored column by column in primitive arrays, row {@code i} of every column belongs
+ * to the same employee. Queries walk one or two arrays front to back without touching the model objects,
+ * so they are limited by memory bandwidth rather than by pointer chasing and unboxing.
+ * <p>
+ * The table is a snapshot: later changes to the companies are not seen by it.
+ */
+public final class EmployeeTable {
+
+    private static final Employee.Gender[] GENDERS = Employee.Gender.values();
+
+    private final int size;
+    private final int[] age;
+    private final long[] salaryCents;
+    private final int[] hiredOnEpochDay;
+    private final byte[] gender;
+    private final int[] companyIndex;
+
+    private final String[] companyIds;
+    private final Employee[] employees;
+
+    private EmployeeTable(int size, String[] companyIds){
+        this.size = size;
+        this.age = new int[size];
+        this.salaryCents = new long[size];
+        this.hiredOnEpochDay = new int[size];
+        this.gender = new byte[size];
+        this.companyIndex = new int[size];
+        this.companyIds = companyIds;
+        this.employees = new Employee[size];
+    }
+
+    /**
+     * @throws NullPointerException if an employee has no hire date, salary or gender
+     * @throws ArithmeticException if a salary has fractions of a cent
+     */
+    public static EmployeeTable of(List<Company> companies){
+        int size = 0;
+        String[] companyIds = new String[companies.size()];
+        for (int i = 0; i < companyIds.length; i++) {
+            Company company = companies.get(i);
+            companyIds[i] = company.getId();
+            size += company.getEmployees().size();
+        }
+        EmployeeTable table = new EmployeeTable(size, companyIds);
+        int row = 0;
+        for (int i = 0; i < companyIds.length; i++) {
+            for (Employee employee : companies.get(i).getEmployees()) {
+                table.age[row] = employee.getAge();
+                table.salaryCents[row] = Objects.requireNonNull(employee.getSalary(), "salary").movePointRight(2).longValueExact();
+                table.hiredOnEpochDay[row] = Math.toIntExact(Objects.requireNonNull(employee.getHiredOn(), "hiredOn").toEpochDay());
+                table.gender[row] = (byte) Objects.requireNonNull(employee.getGender(), "gender").ordinal();
+                table.companyIndex[row] = i;
+                table.employees[row] = employee;
+                row++;
+            }
+        }
+        return table;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int companyCount(){
+        return companyIds.length;
+    }
+
+    public String companyId(int companyIndex){
+        return companyIds[companyIndex];
+    }
+
+    public int age(int row){
+        return age[row];
+    }
+
+    public long salaryCents(int row){
+        return salaryCents[row];
+    }
+
+    public LocalDate hiredOn(int row){
+        return LocalDate.ofEpochDay(hiredOnEpochDay[row]);
+    }
+
+    public Employee.Gender gender(int row){
+        return GENDERS[gender[row]];
+    }
+
+    public int companyIndex(int row){
+        return companyIndex[row];
+    }
+
+    /**
+     * The employee the row was built from.
+     */
+    public Employee employee(int row){
+        return employees[row];
+    }
+
+    /**
+     * Counts the rows the predicate accepts, the predicate gets the row index and reads the columns it needs.
+     */
+    public int count(IntPredicate row){
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if(row.test(i)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of employees hired between the dates, both inclusive
+     */
+    public int countHiredBetween(LocalDate from, LocalDate to){
+        long first = from.toEpochDay();
+        long last = to.toEpochDay();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int day = hiredOnEpochDay[i];
+            count += (day >= first && day <= last) ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @throws ArithmeticException if the total overflows, like {@link edu.wz.streamsapi.stats.SalaryStatistics}
+     */
+    public long totalSalaryCents(){
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total = Math.addExact(total, salaryCents[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Salaries grouped by company, group {@code i} is the company with index {@code i}.
+     * @throws ArithmeticException if the total of a group overflows
+     */
+    public SalaryGroups salariesByCompany(){
+        SalaryGroups groups = new SalaryGroups(companyIds.length);
+        for (int i = 0; i < size; i++) {
+            groups.add(companyIndex[i], salaryCents[i]);
+        }
+        return groups;
+    }
+
+    /**
+     * Salaries grouped by company and gender, see {@link #group(int, Employee.Gender)} for the group index.
+     * @throws ArithmeticException if the total of a group overflows
+     */
+    public SalaryGroups salariesByCompanyAndGender(){
+        SalaryGroups groups = new SalaryGroups(companyIds.length * GENDERS.length);
+        for (int i = 0; i < size; i++) {
+            groups.add(companyIndex[i] * GENDERS.length + gender[i], salaryCents[i]);
+        }
+        return groups;
+    }
+
+    /**
+     * Index of the company and gender group in {@link #salariesByCompanyAndGender()}.
+     */
+    public static int group(int companyIndex, Employee.Gender gender){
+        return companyIndex * GENDERS.length + gender.ordinal();
+    }
+
+    /**
+     * @return rows of the {@code n} most recently hired employees, newest first, earlier rows first on equal dates
+     */
+    public int[] newest(int n){
+        if(n < 0) throw new IllegalArgumentException("N must not be negative");
+        return top(n, hiredOnEpochDay);
+    }
+
+    /**
+     * @return rows of the {@code n} best paid employees, highest salary first, earlier rows first on equal salaries
+     */
+    public int[] bestPaid(int n){
+        if(n < 0) throw new IllegalArgumentException("N must not be negative");
+        return top(n, salaryCents);
+    }
+
+    /**
+     * Higher value is stronger, on equal values the earlier row.
+     */
+    private int[] top(int n, int[] column){
+        return top(new BoundedHeap(Math.min(n, size),
+                (a, b) -> column[a] < column[b] || (column[a] == column[b] && a > b)));
+    }
+
+    private int[] top(int n, long[] column){
+        return top(new BoundedHeap(Math.min(n, size),
+                (a, b) -> column[a] < column[b] || (column[a] == column[b] && a > b)));
+    }
+
+    private int[] top(BoundedHeap heap){
+        for (int i = 0; i < size; i++) {
+            heap.offer(i);
+        }
+        return heap.drain();
+    }
+
+    /**
+     * Count and salary total of every group, averages are computed on demand.
+     */
+    public static final class SalaryGroups {
+        private final long[] sumCents;
+        private final int[] counts;
+
+        private SalaryGroups(int groups){
+            this.sumCents = new long[groups];
+            this.counts = new int[groups];
+        }
+
+        private void add(int group, long cents){
+            sumCents[group] = Math.addExact(sumCents[group], cents);
+            counts[group]++;
+        }
+
+        public int groups(){
+            return counts.length;
+        }
+
+        public int count(int group){
+            return counts[group];
+        }
+
+        public long sumCents(int group){
+            return sumCents[group];
+        }
+
+        /**
+         * @return average salary rounded half up to cents, zero for an empty group
+         */
+        public BigDecimal average(int group){
+            if(counts[group] == 0) return BigDecimal.ZERO;
+            return BigDecimal.valueOf(sumCents[group], 2).divide(BigDecimal.valueOf(counts[group]), RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package edu.wz.streamsapi.view;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Salary averages, oldest employees and newest hires kept up to date while employees come and go, so reading
+ * them never rescans the companies. Adding, removing or updating an employee costs O(log n): the averages are
+ * running sums and counts, the orderings are sorted sets.
+ * <p>
+ * The view tracks employees by id and remembers the values it last saw for each of them. After changing an
+ * employee object call {@link #updateEmployee(Employee)}, otherwise the view keeps the old values.
+ * Averages are whole-unit salaries rounded half up, zero when there is nobody to average, ties in age and
+ * hire date go to the employee added first. All methods are synchronized.
+ */
+public class EmployeeAggregatesView {
+
+    private static final Comparator<Entry> OLDEST_FIRST = Comparator.<Entry>comparingInt(entry -> entry.age).reversed()
+            .thenComparingLong(entry -> entry.sequence);
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator.<Entry, LocalDate>comparing(entry -> entry.hiredOn).reversed()
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final Map<String, Entry> employees = new HashMap<>();
+    private final Map<String, CompanyAggregates> companies = new HashMap<>();
+    private final Map<Employee.Gender, Sums> genders = new EnumMap<>(Employee.Gender.class);
+    private final TreeSet<Entry> byAge = new TreeSet<>(OLDEST_FIRST);
+    private final TreeSet<Entry> byHiredOn = new TreeSet<>(NEWEST_FIRST);
+    private long sequence;
+
+    public EmployeeAggregatesView(){
+        for (Employee.Gender gender : Employee.Gender.values()) {
+            genders.put(gender, new Sums());
+        }
+    }
+
+    public static EmployeeAggregatesView of(List<Company> companies){
+        EmployeeAggregatesView view = new EmployeeAggregatesView();
+        for (Company company : companies) {
+            view.addCompany(company);
+        }
+        return view;
+    }
+
+    /**
+     * Adds the company, known or not, with all its employees.
+     */
+    public synchronized void addCompany(Company company){
+        companies.computeIfAbsent(company.getId(), id -> new CompanyAggregates());
+        for (Employee employee : company.getEmployees()) {
+            addEmployee(company.getId(), employee);
+        }
+    }
+
+    /**
+     * Removes the company with all its employees.
+     * @return false if the company is unknown
+     */
+    public synchronized boolean removeCompany(String companyId){
+        CompanyAggregates company = companies.remove(companyId);
+        if(company == null) return false;
+        for (Entry entry : company.byAge) {
+            employees.remove(entry.employee.getId());
+            genders.get(entry.gender).remove(entry.salary);
+            byAge.remove(entry);
+            byHiredOn.remove(entry);
+        }
+        return true;
+    }
+
+    /**
+     * @throws IllegalArgumentException if an employee with the same id is already in the view
+     * @throws ArithmeticException if the salary is not a whole number or a sum would overflow
+     */
+    public synchronized void addEmployee(String companyId, Employee employee){
+        Objects.requireNonNull(companyId, "company id");
+        if(employees.containsKey(employee.getId())) throw new IllegalArgumentException("Duplicate employee id " + employee.getId());
+        add(new Entry(companyId, employee, sequence++));
+    }
+
+    /**
+     * @return false if there is no employee with the id
+     */
+    public synchronized boolean removeEmployee(String employeeId){
+        Entry entry = employees.get(employeeId);
+        if(entry == null) return false;
+        remove(entry);
+        return true;
+    }
+
+    /**
+     * Replaces the values of the employee with the same id by the current values of this one,
+     * the employee keeps its company and its place among ties.
+     * @return false if there is no employee with the id
+     */
+    public synchronized boolean updateEmployee(Employee employee){
+        Entry entry = employees.get(employee.getId());
+        if(entry == null) return false;
+        Entry updated = new Entry(entry.companyId, employee, entry.sequence);
+        remove(entry);
+        try{
+            add(updated);
+        }
+        catch (ArithmeticException e){
+            add(entry);
+            throw e;
+        }
+        return true;
+    }
+
+    public synchronized int size(){
+        return employees.size();
+    }
+
+    public synchronized BigDecimal averageSalary(String companyId){
+        CompanyAggregates company = companies.get(companyId);
+        return company == null ? BigDecimal.ZERO : company.total.average();
+    }
+
+    public synchronized BigDecimal averageSalary(Employee.Gender gender){
+        return genders.get(gender).average();
+    }
+
+    public synchronized BigDecimal averageSalary(String companyId, Employee.Gender gender){
+        CompanyAggregates company = companies.get(companyId);
+        return company == null ? BigDecimal.ZERO : company.byGender.get(gender).average();
+    }
+
+    public synchronized Optional<Employee> oldest(){
+        return byAge.isEmpty() ? Optional.empty() : Optional.of(byAge.first().employee);
+    }
+
+    public synchronized Optional<Employee> oldest(String companyId){
+        CompanyAggregates company = companies.get(companyId);
+        return company == null || company.byAge.isEmpty() ? Optional.empty() : Optional.of(company.byAge.first().employee);
+    }
+
+    /**
+     * @return up to {@code n} most recently hired employees, newest first
+     */
+    public synchronized List<Employee> newest(int n){
+        if(n < 0) throw new IllegalArgumentException("N must not be negative");
+        List<Employee> result = new ArrayList<>(Math.min(n, byHiredOn.size()));
+        Iterator<Entry> entries = byHiredOn.iterator();
+        while(result.size() < n && entries.hasNext()){
+            result.add(entries.next().employee);
+        }
+        return result;
+    }
+
+    private void add(Entry entry){
+        CompanyAggregates company = companies.computeIfAbsent(entry.companyId, id -> new CompanyAggregates());
+        Sums gender = genders.get(entry.gender);
+        Sums companyGender = company.byGender.get(entry.gender);
+        // check all three sums first, a failed add leaves the view untouched
+        gender.check(entry.salary);
+        company.total.check(entry.salary);
+        companyGender.check(entry.salary);
+        gender.add(entry.salary);
+        company.total.add(entry.salary);
+        companyGender.add(entry.salary);
+        company.byAge.add(entry);
+        byAge.add(entry);
+        byHiredOn.add(entry);
+        employees.put(entry.employee.getId(), entry);
+    }
+
+    private void remove(Entry entry){
+        CompanyAggregates company = companies.get(entry.companyId);
+        genders.get(entry.gender).remove(entry.salary);
+        company.total.remove(entry.salary);
+        company.byGender.get(entry.gender).remove(entry.salary);
+        company.byAge.remove(entry);
+        byAge.remove(entry);
+        byHiredOn.remove(entry);
+        employees.remove(entry.employee.getId());
+    }
+
+    /**
+     * The values of an employee as the view saw them, the aggregates are built from these and not from the
+     * employee object, so removing subtracts exactly what was added.
+     */
+    private static final class Entry {
+        private final String companyId;
+        private final Employee employee;
+        private final long sequence;
+        private final int age;
+        private final LocalDate hiredOn;
+        private final long salary;
+        private final Employee.Gender gender;
+
+        private Entry(String companyId, Employee employee, long sequence){
+            this.companyId = companyId;
+            this.employee = employee;
+            Objects.requireNonNull(employee.getId(), "employee id");
+            this.sequence = sequence;
+            this.age = employee.getAge();
+            this.hiredOn = Objects.requireNonNull(employee.getHiredOn(), "hiredOn");
+            this.salary = employee.getSalary().longValueExact();
+            this.gender = Objects.requireNonNull(employee.getGender(), "gender");
+        }
+    }
+
+    private static final class CompanyAggregates {
+        private final Sums total = new Sums();
+        private final Map<Employee.Gender, Sums> byGender = new EnumMap<>(Employee.Gender.class);
+        private final TreeSet<Entry> byAge = new TreeSet<>(OLDEST_FIRST);
+
+        private CompanyAggregates(){
+            for (Employee.Gender gender : Employee.Gender.values()) {
+                byGender.put(gender, new Sums());
+            }
+        }
+    }
+
+    private static final class Sums {
+        private long count;
+        private long sum;
+
+        private void check(long salary){
+            Math.addExact(sum, salary);
+        }
+
+        private void add(long salary){
+            sum += salary;
+            count++;
+        }
+
+        private void remove(long salary){
+            sum -= salary;
+            count--;
+        }
+
+        private BigDecimal average(){
+            if(count == 0) return BigDecimal.ZERO;
+            return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), RoundingMode.HALF_UP);
+        }
+    }
+}
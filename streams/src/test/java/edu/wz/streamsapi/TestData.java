@@ -0,0 +1,42 @@
+package edu.wz.streamsapi;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.parse.CompanyReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code data.json} resource most tests run against: 7 companies with 74 employees.
+ */
+public final class TestData {
+
+    private static final String DATA = "data.json";
+
+    private TestData(){
+    }
+
+    /**
+     * @return freshly parsed companies in a mutable list, tests may change them
+     */
+    public static List<Company> companies() throws IOException {
+        List<Company> companies = new ArrayList<>();
+        try(InputStream input = open()){
+            new CompanyReader().forEach(input, companies::add);
+        }
+        return companies;
+    }
+
+    public static byte[] bytes() throws IOException {
+        try(InputStream input = open()){
+            return input.readAllBytes();
+        }
+    }
+
+    private static InputStream open(){
+        return Objects.requireNonNull(TestData.class.getClassLoader().getResourceAsStream(DATA), DATA);
+    }
+}
@@ -0,0 +1,47 @@
+package edu.wz.streamsapi.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes large company files for the benchmarks by repeating the companies of data.json.
+ */
+public final class CompanyDataGenerator {
+
+    private CompanyDataGenerator(){
+    }
+
+    /**
+     * Writes an array of companies of at least {@code megabytes} MB, an existing file of that size is reused.
+     */
+    public static Path generate(Path file, int megabytes) throws IOException {
+        long target = (long) megabytes << 20;
+        if(Files.exists(file) && Files.size(file) >= target) return file;
+        byte[] companies = companies();
+        long written = 0;
+        try(OutputStream output = Files.newOutputStream(file)){
+            output.write('[');
+            while(written < target){
+                if(written > 0) output.write(',');
+                output.write(companies);
+                written += companies.length;
+            }
+            output.write(']');
+        }
+        return file;
+    }
+
+    /**
+     * The companies of data.json without the surrounding brackets.
+     */
+    private static byte[] companies() throws IOException {
+        try(InputStream input = CompanyDataGenerator.class.getClassLoader().getResourceAsStream("data.json")){
+            String json = new String(input.readAllBytes(), StandardCharsets.UTF_8).strip();
+            return json.substring(1, json.length() - 1).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package edu.wz.streamsapi.bench;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import edu.wz.streamsapi.parse.CompanyReader;
+import edu.wz.streamsapi.table.EmployeeTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The same queries over the object model with streams and over an {@link EmployeeTable}.
+ * Run it like {@link MappedInputBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeTableBenchmark {
+
+    @Param({"10"})
+    private int sizeMb;
+
+    private List<Company> companies;
+
+    private EmployeeTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = CompanyDataGenerator.generate(Path.of(System.getProperty("java.io.tmpdir"), "companies-" + sizeMb + "mb.json"), sizeMb);
+        companies = new ArrayList<>();
+        new CompanyReader().forEach(file, companies::add);
+        table = EmployeeTable.of(companies);
+    }
+
+    @Benchmark
+    public Map<Integer, BigDecimal> salaryByCompanyStreams(){
+        Map<Integer, BigDecimal> totals = new HashMap<>();
+        for (int i = 0; i < companies.size(); i++) {
+            totals.put(i, companies.get(i).getEmployees().stream().map(Employee::getSalary).reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public EmployeeTable.SalaryGroups salaryByCompanyTable(){
+        return table.salariesByCompany();
+    }
+
+    @Benchmark
+    public List<Employee> newestStreams(){
+        return companies.stream()
+                .map(Company::getEmployees)
+                .flatMap(Collection::stream)
+                .sorted(Comparator.comparing(Employee::getHiredOn).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] newestTable(){
+        return table.newest(10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmployeeTableBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
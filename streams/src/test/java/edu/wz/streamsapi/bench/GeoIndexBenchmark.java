@@ -0,0 +1,100 @@
+package edu.wz.streamsapi.bench;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.index.GeoIndex;
+import edu.wz.streamsapi.stats.TopK;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius and nearest neighbour queries with a {@link GeoIndex} against a full scan with haversine distances,
+ * over companies spread uniformly on the globe. Every invocation uses the next of a fixed set of query points.
+ * Run it like {@link MappedInputBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class GeoIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"1000000"})
+    private int companies;
+
+    @Param({"50"})
+    private double radiusKm;
+
+    @Param({"10"})
+    private int k;
+
+    private List<Company> list;
+
+    private GeoIndex index;
+
+    private final double[] latitudes = new double[QUERIES];
+    private final double[] longitudes = new double[QUERIES];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        Random random = new Random(1);
+        list = new ArrayList<>(companies);
+        for (int i = 0; i < companies; i++) {
+            double latitude = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+            list.add(new Company("c" + i, null, List.of(), null, null, latitude, random.nextDouble() * 360 - 180));
+        }
+        index = GeoIndex.of(list);
+        for (int i = 0; i < QUERIES; i++) {
+            latitudes[i] = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+    }
+
+    @Benchmark
+    public List<Company> withinIndex(){
+        int query = next++ & (QUERIES - 1);
+        return index.within(latitudes[query], longitudes[query], radiusKm);
+    }
+
+    @Benchmark
+    public List<Company> withinScan(){
+        int query = next++ & (QUERIES - 1);
+        double latitude = latitudes[query];
+        double longitude = longitudes[query];
+        return list.stream()
+                .filter(company -> GeoIndex.distanceKm(latitude, longitude, company.getLatitude(), company.getLongitude()) <= radiusKm)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Company> nearestIndex(){
+        int query = next++ & (QUERIES - 1);
+        return index.nearest(latitudes[query], longitudes[query], k);
+    }
+
+    @Benchmark
+    public List<Company> nearestScan(){
+        int query = next++ & (QUERIES - 1);
+        double latitude = latitudes[query];
+        double longitude = longitudes[query];
+        return list.stream().collect(TopK.of(k, Comparator.comparingDouble(company ->
+                GeoIndex.distanceKm(latitude, longitude, company.getLatitude(), company.getLongitude()))));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeoIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
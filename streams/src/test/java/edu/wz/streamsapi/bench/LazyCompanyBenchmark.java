@@ -0,0 +1,64 @@
+package edu.wz.streamsapi.bench;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.parse.CompanyReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading companies and running a company-only query on them, with employees built eagerly and lazily.
+ * Run it like {@link MappedInputBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LazyCompanyBenchmark {
+
+    @Param({"10"})
+    private int sizeMb;
+
+    private final CompanyReader companyReader = new CompanyReader();
+
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = CompanyDataGenerator.generate(Path.of(System.getProperty("java.io.tmpdir"), "companies-" + sizeMb + "mb.json"), sizeMb);
+        json = Files.readAllBytes(file);
+    }
+
+    @Benchmark
+    public long eager() throws IOException {
+        List<Company> companies = new ArrayList<>();
+        companyReader.forEach(new ByteArrayInputStream(json), companies::add);
+        return northernCompanies(companies);
+    }
+
+    @Benchmark
+    public long lazy() throws IOException {
+        return northernCompanies(companyReader.readLazily(json));
+    }
+
+    private static long northernCompanies(List<Company> companies){
+        return companies.stream().filter(company -> company.getLatitude() > 0).count();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LazyCompanyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
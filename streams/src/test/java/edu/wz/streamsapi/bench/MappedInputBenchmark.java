@@ -0,0 +1,74 @@
+package edu.wz.streamsapi.bench;
+
+import edu.wz.streamsapi.parse.CompanyReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a large company file through a reader, through a buffered stream and through a memory mapping.
+ * Parsing dominates all three: skipping the charset decoding is what the reader loses, the mapping is only a few
+ * percent ahead of the buffered stream.
+ * <p>
+ * Run from the streams directory after {@code mvn test-compile}:
+ * <pre>
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     edu.wz.streamsapi.bench.MappedInputBenchmark
+ * </pre>
+ * The files are generated once into {@code java.io.tmpdir} and reused by later runs.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+@State(Scope.Benchmark)
+public class MappedInputBenchmark {
+
+    @Param({"100", "1000"})
+    private int sizeMb;
+
+    private final CompanyReader companyReader = new CompanyReader();
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = CompanyDataGenerator.generate(Path.of(System.getProperty("java.io.tmpdir"), "companies-" + sizeMb + "mb.json"), sizeMb);
+    }
+
+    @Benchmark
+    public void readerPath(Blackhole blackhole) throws IOException {
+        try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            companyReader.forEach(reader, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void inputStreamPath(Blackhole blackhole) throws IOException {
+        try(InputStream input = Files.newInputStream(file)){
+            companyReader.forEach(input, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void mappedPath(Blackhole blackhole) throws IOException {
+        companyReader.forEach(file, blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappedInputBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package edu.wz.streamsapi.bench;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wz.streamsapi.parse.CompanyParser;
+import edu.wz.streamsapi.parse.CompanyReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Companies read through a {@link JsonNode} tree and the fillers against the token stream parsers.
+ * Both read the same bytes from memory. Run it like {@link MappedInputBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"10"})
+    private int sizeMb;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final CompanyReader companyReader = new CompanyReader(mapper);
+
+    private final CompanyParser companyParser = new CompanyParser();
+
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = CompanyDataGenerator.generate(Path.of(System.getProperty("java.io.tmpdir"), "companies-" + sizeMb + "mb.json"), sizeMb);
+        json = Files.readAllBytes(file);
+    }
+
+    @Benchmark
+    public void treeFillers(Blackhole blackhole) throws IOException {
+        try(JsonParser parser = mapper.getFactory().createParser(json)){
+            parser.nextToken();
+            while(parser.nextToken() == JsonToken.START_OBJECT){
+                JsonNode companyNode = mapper.readTree(parser);
+                blackhole.consume(companyReader.toCompany(companyNode));
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenParsers(Blackhole blackhole) throws IOException {
+        try(JsonParser parser = mapper.getFactory().createParser(json)){
+            parser.nextToken();
+            while(parser.nextToken() == JsonToken.START_OBJECT){
+                blackhole.consume(companyParser.read(parser));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package edu.wz.streamsapi.bench;
+
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.parse.CompanyReader;
+import edu.wz.streamsapi.snapshot.CompanySnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm start: loading the companies from JSON text against loading them from a {@link CompanySnapshot}.
+ * Both sides read from memory, so only decoding is measured. Run it like {@link MappedInputBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"10"})
+    private int sizeMb;
+
+    private final CompanyReader companyReader = new CompanyReader();
+
+    private byte[] json;
+
+    private byte[] snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path file = CompanyDataGenerator.generate(Path.of(System.getProperty("java.io.tmpdir"), "companies-" + sizeMb + "mb.json"), sizeMb);
+        json = Files.readAllBytes(file);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CompanySnapshot.write(fromJson(), output);
+        snapshot = output.toByteArray();
+    }
+
+    @Benchmark
+    public List<Company> fromJson() throws IOException {
+        List<Company> companies = new ArrayList<>();
+        companyReader.forEach(new ByteArrayInputStream(json), companies::add);
+        return companies;
+    }
+
+    @Benchmark
+    public List<Company> fromSnapshot() throws IOException {
+        return CompanySnapshot.read(snapshot);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SnapshotBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
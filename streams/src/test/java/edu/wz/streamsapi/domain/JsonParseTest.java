@@ -1,9 +1,6 @@
 package edu.wz.streamsapi.domain;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import edu.wz.streamsapi.parse.CompanyFiller;
-import edu.wz.streamsapi.parse.EmployeeFiller;
+import edu.wz.streamsapi.parse.CompanyReader;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
@@ -18,9 +15,7 @@ class JsonParseTest {
 
     private final List<Company> companies = new ArrayList<>();
 
-    private final CompanyFiller companyFiller = new CompanyFiller();
-
-    private final EmployeeFiller employeeFiller = new EmployeeFiller();
+    private final CompanyReader companyReader = new CompanyReader();
 
     @Test
     public void testJsonToObjectMapping(){
@@ -29,26 +24,7 @@ class JsonParseTest {
         URL resource = JsonParseTest.class.getClassLoader().getResource(filePath);
         try {
             Objects.requireNonNull(resource);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream()));
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.readTree(reader);
-
-            if (jsonNode.isArray()) {
-                jsonNode.elements().forEachRemaining(companyNode -> {
-                    Company company = new Company();
-                    companyFiller.accept(companyNode, company);
-                    company.setEmployees(new ArrayList<>());
-                    companyNode.get("employees").elements().forEachRemaining(employeeNode -> {
-                        Employee employee = new Employee();
-                        employeeFiller.accept(employeeNode, employee);
-                        company.getEmployees().add(employee);
-                    });
-                    companies.add(company);
-                });
-            }
-            else{
-                throw new RuntimeException("Unexpected data format");
-            }
+            companyReader.forEach(resource.openStream(), companies::add);
         } catch (IOException e) {
             System.out.println(e.getMessage());
             throw new RuntimeException(e);
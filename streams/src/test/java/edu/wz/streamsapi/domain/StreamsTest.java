@@ -1,17 +1,15 @@
 package edu.wz.streamsapi.domain;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import edu.wz.streamsapi.parse.CompanyFiller;
-import edu.wz.streamsapi.parse.EmployeeFiller;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import edu.wz.streamsapi.index.CompanyIndex;
+import edu.wz.streamsapi.parse.CompanyReader;
+import edu.wz.streamsapi.stats.Dimension;
+import edu.wz.streamsapi.stats.SalaryGrouping;
+import edu.wz.streamsapi.stats.SalaryStatistics;
+import edu.wz.streamsapi.stats.TopK;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URL;
@@ -24,9 +22,9 @@ import static org.assertj.core.api.Assertions.*;
 public class StreamsTest {
     private List<Company> companies;
 
-    private final CompanyFiller companyFiller = new CompanyFiller();
+    private CompanyIndex companyIndex;
 
-    private final EmployeeFiller employeeFiller = new EmployeeFiller();
+    private final CompanyReader companyReader = new CompanyReader();
 
     @BeforeEach
     void init(){
@@ -36,29 +34,11 @@ public class StreamsTest {
 
         try {
             Objects.requireNonNull(resource);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream()));
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.readTree(reader);
-
-            if (jsonNode.isArray()) {
-                jsonNode.elements().forEachRemaining(companyNode -> {
-                    Company company = new Company();
-                    companyFiller.accept(companyNode, company);
-                    company.setEmployees(new ArrayList<>());
-                    companyNode.get("employees").elements().forEachRemaining(employeeNode -> {
-                        Employee employee = new Employee();
-                        employeeFiller.accept(employeeNode, employee);
-                        company.getEmployees().add(employee);
-                    });
-                    companies.add(company);
-                });
-            }
-            else{
-                throw new RuntimeException("Unexpected data format");
-            }
+            companyReader.forEach(resource.openStream(), companies::add);
         } catch (IOException e) {
             throw new RuntimeException("Error when reading file %s".formatted(filePath), e);
         }
+        companyIndex = CompanyIndex.of(companies);
     }
 
     /**
@@ -78,7 +58,7 @@ public class StreamsTest {
 
         assertThat(result).isNotNull().isNotEmpty().hasSize(companies.size());
         assertThat(result).allSatisfy((cId, employee) -> {
-            Company company = companies.stream().filter(c -> Objects.equals(c.getId(), cId)).findFirst().orElseThrow();
+            Company company = companyIndex.byId(cId).orElseThrow();
             Employee actualEmployee = company.getEmployees().stream().max(Comparator.comparingInt(Employee::getAge)).orElse(null);
             assertThat(employee).isSameAs(actualEmployee);
         });
@@ -93,9 +73,7 @@ public class StreamsTest {
         List<Employee> result = companies.stream()
                 .map(Company::getEmployees)
                 .flatMap(Collection::stream)
-                .sorted(Comparator.comparing(Employee::getHiredOn, LocalDate::compareTo).reversed())
-                .limit(10)
-                .toList();
+                .collect(TopK.of(10, Comparator.comparing(Employee::getHiredOn, LocalDate::compareTo).reversed()));
 
         assertThat(result)
                 .isNotNull()
@@ -118,14 +96,13 @@ public class StreamsTest {
                 .collect(Collectors.toMap(
                         Company::getId,
                         entry -> entry.getEmployees().stream()
-                                .map(Employee::getSalary)
-                                .collect(Averager::new, Averager::accept, Averager::combine)
-                                .average()
+                                .collect(SalaryStatistics.summarizing(Employee::getSalary))
+                                .getAverage()
                 ));
 
         //then
         assertThat(averageSalaries).allSatisfy((cId, avg) -> {
-            Company company = companies.stream().filter(c -> Objects.equals(c.getId(), cId)).findFirst().orElseThrow();
+            Company company = companyIndex.byId(cId).orElseThrow();
             BigDecimal total = company.getEmployees().stream()
                     .map(Employee::getSalary)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -143,25 +120,15 @@ public class StreamsTest {
      */
     @Test
     public void calculatesAverageSalariesInCompaniesForEveryGender(){
-        Map<String, Map<Employee.Gender, BigDecimal>> avgsByGenders = companies.stream()
-                .collect(Collectors.toMap(Company::getId,
-                        company -> EnumSet.allOf(Employee.Gender.class).stream()
-                        .parallel()
-                        .collect(Collectors.toMap(
-                                gender -> gender,
-                                gender -> company.getEmployees().stream()
-                                        .filter(employee -> employee.getGender().equals(gender))
-                                        .map(Employee::getSalary)
-                                        .collect(Averager::new, Averager::accept, Averager::combine)
-                                        .average()
-                        ))));
+        Map<String, Map<Employee.Gender, SalaryStatistics>> salariesByGenders = companies.parallelStream()
+                .collect(SalaryGrouping.perCompany(Dimension.of(Employee.Gender.class, Employee::getGender)));
         //then
-        assertThat(avgsByGenders)
+        assertThat(salariesByGenders)
                 .isNotNull()
                 .isNotEmpty()
                 .hasSize(companies.size());
-        assertThat(avgsByGenders).allSatisfy((cId, genderSalaries) -> {
-            Company company = companies.stream().filter(c -> Objects.equals(c.getId(), cId)).findFirst().orElseThrow();
+        assertThat(salariesByGenders).allSatisfy((cId, genderSalaries) -> {
+            Company company = companyIndex.byId(cId).orElseThrow();
             for (Employee.Gender gender : EnumSet.allOf(Employee.Gender.class)){
                 List<Employee> employeesOfGender = company.getEmployees().stream().filter(e -> e.getGender().equals(gender)).toList();
                 BigDecimal total = BigDecimal.ZERO;
@@ -170,38 +137,9 @@ public class StreamsTest {
                 }
                 BigDecimal avg = employeesOfGender.size() > 0 ?
                         total.divide(new BigDecimal(employeesOfGender.size()), RoundingMode.HALF_UP) : BigDecimal.ZERO;
-                assertThat(genderSalaries.get(gender)).isEqualTo(avg);
+                assertThat(genderSalaries.get(gender).getAverage()).isEqualTo(avg);
             }
         });
     }
 
-    @Data
-    @AllArgsConstructor
-    public static class Averager {
-        private BigDecimal total;
-        private int count;
-
-        public Averager() {
-            total = BigDecimal.ZERO;
-            count = 0;
-        }
-
-        public BigDecimal average(){
-            if(count > 0)
-                return total.divide(new BigDecimal(count), RoundingMode.HALF_UP);
-            else
-                return BigDecimal.ZERO;
-        }
-
-        public void accept(BigDecimal salary){
-            this.count ++;
-            this.total = this.total.add(salary);
-        }
-
-        public Averager combine(Averager that){
-            return new Averager(this.getTotal().add(that.getTotal()), this.count + that.getCount());
-        }
-
-    }
-
 }
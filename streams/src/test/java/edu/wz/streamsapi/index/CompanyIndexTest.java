@@ -0,0 +1,79 @@
+package edu.wz.streamsapi.index;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompanyIndexTest {
+
+    @Test
+    public void findsEveryCompanyOfTheData() throws IOException {
+        List<Company> companies = TestData.companies();
+
+        CompanyIndex index = CompanyIndex.of(companies);
+
+        assertThat(index.size()).isEqualTo(companies.size());
+        for (Company company : companies) {
+            assertThat(index.byId(company.getId())).containsSame(company);
+            assertThat(index.byName(company.getName())).containsExactly(company);
+            for (Employee employee : company.getEmployees()) {
+                assertThat(index.byEmployeeId(employee.getId())).containsSame(company);
+            }
+        }
+        assertThat(index.byId("missing")).isEmpty();
+        assertThat(index.byId(null)).isEmpty();
+        assertThat(index.byName("missing")).isEmpty();
+        assertThat(index.byEmployeeId(companies.get(0).getId())).isEmpty();
+    }
+
+    /**
+     * Enough keys to collide plenty, including strings that share a hash code.
+     */
+    @Test
+    public void resolvesCollisions(){
+        List<Company> companies = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            companies.add(company("c" + i, "name" + i % 100, List.of(employee("e" + i))));
+        }
+        // "Aa" and "BB" have the same hash code
+        companies.add(company("Aa", "Aa", List.of(employee("BB"))));
+        companies.add(company("BB", "BB", List.of(employee("Aa"))));
+
+        CompanyIndex index = CompanyIndex.of(companies);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(index.byId("c" + i)).containsSame(companies.get(i));
+            assertThat(index.byEmployeeId("e" + i)).containsSame(companies.get(i));
+        }
+        assertThat(index.byName("name7")).hasSize(100).extracting(Company::getId).startsWith("c7", "c107", "c207");
+        assertThat(index.byId("Aa").orElseThrow().getName()).isEqualTo("Aa");
+        assertThat(index.byId("BB").orElseThrow().getName()).isEqualTo("BB");
+        assertThat(index.byEmployeeId("BB")).containsSame(index.byId("Aa").orElseThrow());
+    }
+
+    @Test
+    public void rejectsDuplicateIds(){
+        assertThatThrownBy(() -> CompanyIndex.of(List.of(company("c", "a", List.of()), company("c", "b", List.of()))))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("company id");
+        assertThatThrownBy(() -> CompanyIndex.of(List.of(company("a", "a", List.of(employee("e"))), company("b", "b", List.of(employee("e"))))))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("employee id");
+        assertThat(CompanyIndex.of(List.of()).byId("c")).isEmpty();
+    }
+
+    private static Company company(String id, String name, List<Employee> employees){
+        return new Company(id, name, employees, "address", "about", 0, 0);
+    }
+
+    private static Employee employee(String id){
+        return new Employee(id, "name", 30, LocalDate.of(2020, 1, 1), "phone", BigDecimal.ONE, Employee.Gender.OTHER);
+    }
+}
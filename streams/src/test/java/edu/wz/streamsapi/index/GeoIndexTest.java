@@ -0,0 +1,117 @@
+package edu.wz.streamsapi.index;
+
+import edu.wz.streamsapi.domain.Company;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GeoIndexTest {
+
+    private static final Random RANDOM = new Random(11);
+
+    /**
+     * Radius and nearest neighbour queries give what a full scan with haversine distances gives.
+     */
+    @Test
+    public void matchesLinearScan(){
+        List<Company> companies = randomCompanies(20_000);
+        GeoIndex index = GeoIndex.of(companies);
+
+        for (int i = 0; i < 100; i++) {
+            double latitude = RANDOM.nextDouble() * 180 - 90;
+            double longitude = RANDOM.nextDouble() * 360 - 180;
+            double radius = RANDOM.nextDouble() * 1000;
+            double[] distances = companies.stream().mapToDouble(company -> distance(company, latitude, longitude)).toArray();
+            List<Integer> byDistance = IntStream.range(0, companies.size()).boxed()
+                    .sorted(Comparator.comparingDouble(position -> distances[position]))
+                    .toList();
+
+            assertThat(index.within(latitude, longitude, radius)).containsExactlyElementsOf(byDistance.stream()
+                    .filter(position -> distances[position] <= radius)
+                    .map(companies::get)
+                    .toList());
+            assertThat(index.nearest(latitude, longitude, 10)).containsExactlyElementsOf(byDistance.stream()
+                    .limit(10)
+                    .map(companies::get)
+                    .toList());
+        }
+    }
+
+    /**
+     * Near the poles and across the antimeridian neighbours are found like anywhere else.
+     */
+    @Test
+    public void handlesPolesAndAntimeridian(){
+        Company east = company("east", 10, 179.9);
+        Company west = company("west", 10, -179.9);
+        Company north = company("north", 89.9, 0);
+        Company farNorth = company("farNorth", 89.9, 180);
+        Company elsewhere = company("elsewhere", 0, 0);
+        GeoIndex index = GeoIndex.of(List.of(east, west, north, farNorth, elsewhere));
+
+        assertThat(index.within(10, 180, 20)).containsExactlyInAnyOrder(east, west);
+        assertThat(index.nearest(10, -179.95, 2)).containsExactly(west, east);
+        assertThat(index.within(90, 0, 15)).containsExactlyInAnyOrder(north, farNorth);
+    }
+
+    @Test
+    public void handlesEdgeCases(){
+        List<Company> companies = randomCompanies(100);
+        GeoIndex index = GeoIndex.of(companies);
+        Company same = company("same", 1, 1);
+        Company sameLater = company("sameLater", 1, 1);
+
+        assertThat(index.within(0, 0, 30_000)).hasSize(100);
+        assertThat(index.nearest(0, 0, 1000)).hasSize(100);
+        assertThat(index.nearest(0, 0, 0)).isEmpty();
+        assertThat(GeoIndex.of(List.of()).nearest(0, 0, 3)).isEmpty();
+        assertThat(GeoIndex.of(List.of()).within(0, 0, 10)).isEmpty();
+        assertThat(GeoIndex.of(List.of(same, sameLater)).nearest(1, 1, 2)).containsExactly(same, sameLater);
+        assertThatThrownBy(() -> index.within(0, 0, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.nearest(0, 0, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(GeoIndex.distanceKm(0, 0, 0, 180)).isCloseTo(Math.PI * GeoIndex.EARTH_RADIUS_KM, within(1e-6));
+    }
+
+    /**
+     * Thousands of companies on one spot, like a city or the default 0/0, are indexed in about linear time.
+     */
+    @Test
+    @Timeout(5)
+    public void handlesRepeatedCoordinates(){
+        List<Company> companies = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            companies.add(company("c" + i, i % 10 == 0 ? 52.23 : 0, i % 10 == 0 ? 21.01 : 0));
+        }
+        GeoIndex index = GeoIndex.of(companies);
+
+        assertThat(index.within(0, 0, 1)).hasSize(45_000).allMatch(company -> company.getLatitude() == 0);
+        assertThat(index.within(52.23, 21.01, 1)).hasSize(5_000);
+        assertThat(index.nearest(0, 0, 3)).containsExactly(companies.get(1), companies.get(2), companies.get(3));
+        assertThat(index.nearest(52.23, 21.01, 2)).containsExactly(companies.get(0), companies.get(10));
+    }
+
+    private static double distance(Company company, double latitude, double longitude){
+        return GeoIndex.distanceKm(latitude, longitude, company.getLatitude(), company.getLongitude());
+    }
+
+    private static List<Company> randomCompanies(int count){
+        List<Company> companies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // uniform over the sphere, not crowded at the poles
+            double latitude = Math.toDegrees(Math.asin(RANDOM.nextDouble() * 2 - 1));
+            companies.add(company("c" + i, latitude, RANDOM.nextDouble() * 360 - 180));
+        }
+        return companies;
+    }
+
+    private static Company company(String id, double latitude, double longitude){
+        return new Company(id, id, List.of(), "address", "about", latitude, longitude);
+    }
+}
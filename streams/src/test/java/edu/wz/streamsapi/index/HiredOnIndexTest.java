@@ -0,0 +1,118 @@
+package edu.wz.streamsapi.index;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HiredOnIndexTest {
+
+    private static final Comparator<Employee> NEWEST_FIRST = Comparator.comparing(Employee::getHiredOn).reversed();
+
+    @Test
+    public void matchesStreamsOnData() throws IOException {
+        List<Company> companies = TestData.companies();
+        List<Employee> employees = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+        HiredOnIndex index = HiredOnIndex.of(companies);
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2021, 12, 31);
+
+        assertThat(index.size()).isEqualTo(employees.size());
+        assertThat(index.countBetween(from, to)).isEqualTo(between(employees, from, to).size());
+        assertThat(index.between(from, to)).containsExactlyElementsOf(between(employees, from, to));
+        assertThat(index.newest(10)).containsExactlyElementsOf(employees.stream().sorted(NEWEST_FIRST).limit(10).toList());
+    }
+
+    /**
+     * Employees added one by one, many of them on the same days, are found like the ones the index was built with.
+     */
+    @Test
+    public void staysUpToDateWhileAdding(){
+        Random random = new Random(25);
+        List<Employee> initial = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            initial.add(employee("i" + i, LocalDate.of(2015, 1, 1).plusDays(random.nextInt(2000))));
+        }
+        HiredOnIndex index = HiredOnIndex.of(List.of(new Company("c", "c", initial, null, null, 0, 0)));
+        List<Employee> all = new ArrayList<>(initial);
+
+        for (int i = 0; i < 3000; i++) {
+            Employee employee = employee("a" + i, LocalDate.of(2015, 1, 1).plusDays(random.nextInt(2000)));
+            index.add(employee);
+            all.add(employee);
+            if(i % 97 == 0){
+                LocalDate from = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(2000));
+                LocalDate to = from.plusDays(random.nextInt(200));
+                List<Employee> expected = between(all, from, to);
+                assertThat(index.countBetween(from, to)).isEqualTo(expected.size());
+                assertThat(index.between(from, to)).containsExactlyElementsOf(expected);
+                assertThat(index.newest(25)).containsExactlyElementsOf(all.stream().sorted(NEWEST_FIRST).limit(25).toList());
+            }
+        }
+        assertThat(index.size()).isEqualTo(all.size());
+        assertThat(index.newest(all.size())).containsExactlyElementsOf(all.stream().sorted(NEWEST_FIRST).toList());
+    }
+
+    @Test
+    public void handlesEdgeCases(){
+        LocalDate day = LocalDate.of(2020, 5, 5);
+        Employee first = employee("first", day);
+        Employee second = employee("second", day);
+        Employee third = employee("third", day);
+        HiredOnIndex index = new HiredOnIndex();
+
+        assertThat(index.newest(3)).isEmpty();
+        assertThat(index.countBetween(day, day)).isZero();
+        index.add(first);
+        index.add(second);
+        index.add(third);
+        assertThat(index.newest(2)).containsExactly(first, second);
+        assertThat(index.between(day, day)).containsExactly(first, second, third);
+        assertThat(index.countBetween(day.plusDays(1), day)).isZero();
+        assertThat(index.between(day.plusDays(1), day)).isEmpty();
+        assertThat(index.newest(0)).isEmpty();
+        assertThatThrownBy(() -> index.newest(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.add(new Employee())).isInstanceOf(NullPointerException.class);
+    }
+
+    /**
+     * The whole range of dates can be asked for, even though epoch days are stored as ints.
+     */
+    @Test
+    public void acceptsAnyDates(){
+        Employee oldest = employee("oldest", LocalDate.ofEpochDay(Integer.MIN_VALUE));
+        Employee middle = employee("middle", LocalDate.of(2020, 5, 5));
+        Employee newest = employee("newest", LocalDate.ofEpochDay(Integer.MAX_VALUE - 1));
+        HiredOnIndex index = HiredOnIndex.of(List.of(new Company("c", "c", List.of(middle, oldest, newest), null, null, 0, 0)));
+
+        assertThat(index.countBetween(LocalDate.MIN, LocalDate.MAX)).isEqualTo(3);
+        assertThat(index.between(LocalDate.MIN, LocalDate.MAX)).containsExactly(newest, middle, oldest);
+        assertThat(index.between(LocalDate.of(2020, 5, 5), LocalDate.MAX)).containsExactly(newest, middle);
+        assertThat(index.countBetween(LocalDate.MIN, LocalDate.of(2020, 5, 4))).isEqualTo(1);
+        assertThat(index.countBetween(LocalDate.MAX, LocalDate.MIN)).isZero();
+        assertThatThrownBy(() -> index.add(employee("far", LocalDate.ofEpochDay(Integer.MAX_VALUE))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static List<Employee> between(List<Employee> employees, LocalDate from, LocalDate to){
+        return employees.stream()
+                .filter(e -> !e.getHiredOn().isBefore(from) && !e.getHiredOn().isAfter(to))
+                .sorted(NEWEST_FIRST)
+                .toList();
+    }
+
+    private static Employee employee(String id, LocalDate hiredOn){
+        return new Employee(id, id, 30, hiredOn, null, BigDecimal.TEN, Employee.Gender.OTHER);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompanyParserTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final CompanyParser companyParser = new CompanyParser();
+
+    /**
+     * The token parsers and the fillers give equal companies for the whole data set.
+     */
+    @Test
+    public void matchesFillers() throws IOException {
+        JsonNode root;
+        try(InputStream input = getClass().getClassLoader().getResourceAsStream("data.json")){
+            root = mapper.readTree(input);
+        }
+        CompanyReader companyReader = new CompanyReader(mapper);
+        List<Company> expected = new ArrayList<>();
+        root.elements().forEachRemaining(companyNode -> expected.add(companyReader.toCompany(companyNode)));
+
+        List<Company> parsed = new ArrayList<>();
+        try(JsonParser parser = mapper.getFactory().createParser(mapper.writeValueAsBytes(root))){
+            parser.nextToken();
+            while(parser.nextToken() == JsonToken.START_OBJECT){
+                parsed.add(companyParser.read(parser));
+            }
+        }
+
+        assertThat(parsed).hasSize(7).isEqualTo(expected);
+        // the fillers used to read the longitude into the latitude as well
+        assertThat(parsed).allSatisfy(company -> assertThat(company.getLatitude()).isNotEqualTo(company.getLongitude()));
+    }
+
+    /**
+     * Unknown fields of any shape are skipped, numbers and strings convert like {@link JsonNode#asText()} and
+     * {@link JsonNode#asInt()} would.
+     */
+    @Test
+    public void skipsUnknownFieldsAndConvertsLikeFillers() throws IOException {
+        String json = """
+                {"tags": ["a", {"b": [1, 2]}], "_id": 42, "latitude": "1.5", "longitude": -2,
+                 "employees": [{"extra": {"x": {}}, "_id": "e1", "age": "31", "salary": 1000,
+                                "hiredOn": "2019-02-28", "gender": "Female", "name": "N", "phone": "P"}],
+                 "nested": {"employees": []}, "name": "Company"}""";
+
+        Company company = read(json);
+
+        assertThat(company.getId()).isEqualTo("42");
+        assertThat(company.getName()).isEqualTo("Company");
+        assertThat(company.getLatitude()).isEqualTo(1.5);
+        assertThat(company.getLongitude()).isEqualTo(-2);
+        assertThat(company.getEmployees()).containsExactly(new Employee("e1", "N", 31, LocalDate.of(2019, 2, 28), "P",
+                BigDecimal.valueOf(1000), Employee.Gender.FEMALE));
+        assertThat(read("{\"name\": \"Empty\"}").getEmployees()).isEmpty();
+    }
+
+    @Test
+    public void parsesDatesLikeLocalDate(){
+        assertThat(EmployeeParser.parseDate("2022-07-03")).isEqualTo(LocalDate.of(2022, 7, 3));
+        assertThat(EmployeeParser.parseDate("+12345-01-01")).isEqualTo(LocalDate.parse("+12345-01-01"));
+        assertThatThrownBy(() -> EmployeeParser.parseDate("2022-02-30")).isInstanceOf(DateTimeException.class);
+        assertThatThrownBy(() -> EmployeeParser.parseDate("2022-0a-01")).isInstanceOf(DateTimeParseException.class);
+    }
+
+    private Company read(String json) throws IOException {
+        try(JsonParser parser = mapper.getFactory().createParser(json)){
+            parser.nextToken();
+            return companyParser.read(parser);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package edu.wz.streamsapi.parse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wz.streamsapi.domain.Company;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompanyReaderTest {
+
+    private static final String COMPANY = """
+            {"_id": "c1", "name": "IMKAN", "employees": [
+              {"_id": "e1", "name": "Carey Giles", "hiredOn": "2018-09-11", "age": 25,
+               "phone": "+1 (844) 568-3933", "gender": "male", "salary": 13677}
+            ], "address": "Somewhere", "about": "Something", "latitude": 10.5, "longitude": -20.25}""";
+
+    private final CompanyReader companyReader = new CompanyReader();
+
+    /**
+     * The stream, the callback and the old read-the-whole-tree way give the same companies.
+     */
+    @Test
+    public void streamAndCallbackMatchTreeMapping() throws IOException {
+        List<Company> expected = new ArrayList<>();
+        JsonNode root = new ObjectMapper().readTree(data());
+        root.elements().forEachRemaining(companyNode -> expected.add(companyReader.toCompany(companyNode)));
+
+        List<Company> viaCallback = new ArrayList<>();
+        companyReader.forEach(data(), viaCallback::add);
+        List<Company> viaStream;
+        try(Stream<Company> companies = companyReader.stream(data())){
+            viaStream = companies.toList();
+        }
+
+        assertThat(expected).hasSize(7);
+        assertThat(viaCallback).isEqualTo(expected);
+        assertThat(viaStream).isEqualTo(expected);
+    }
+
+    /**
+     * Companies are parsed on demand: a stream over an endless input still delivers the first ones.
+     */
+    @Test
+    public void streamIsLazy() throws IOException {
+        try(Stream<Company> companies = companyReader.stream(new EndlessCompanies())){
+            assertThat(companies.limit(10_000)).hasSize(10_000).allSatisfy(company -> {
+                assertThat(company.getName()).isEqualTo("IMKAN");
+                assertThat(company.getEmployees()).hasSize(1);
+            });
+        }
+    }
+
+    @Test
+    public void rejectsUnexpectedFormat() throws IOException {
+        assertThatThrownBy(() -> companyReader.forEach(bytes("{}"), company -> {}))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unexpected data format");
+
+        try(Stream<Company> companies = companyReader.stream(bytes("[" + COMPANY + ", 42]"))){
+            assertThatThrownBy(companies::toList)
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("Unexpected data format");
+        }
+    }
+
+    /**
+     * The input is closed when it does not even start like an array, whether the first token is wrong or broken.
+     */
+    @Test
+    public void closesInputItRejects(){
+        for (String json : new String[]{"{}", "<html>"}) {
+            ClosingInput input = new ClosingInput(json);
+            assertThatThrownBy(() -> companyReader.stream(input)).isInstanceOf(IOException.class);
+            assertThat(input.closed).as(json).isTrue();
+        }
+    }
+
+    private static InputStream data(){
+        return CompanyReaderTest.class.getClassLoader().getResourceAsStream("data.json");
+    }
+
+    private static InputStream bytes(String json){
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class ClosingInput extends ByteArrayInputStream {
+        private boolean closed;
+
+        ClosingInput(String json){
+            super(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    /**
+     * "[" followed by the same company over and over, never closed.
+     */
+    private static class EndlessCompanies extends InputStream {
+        private final byte[] company = (COMPANY + ",").getBytes(StandardCharsets.UTF_8);
+        private int position = -1;
+
+        @Override
+        public int read() {
+            if(position < 0){
+                position = 0;
+                return '[';
+            }
+            byte next = company[position];
+            position = (position + 1) % company.length;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package edu.wz.streamsapi.parse;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DeduplicatorTest {
+
+    /**
+     * Repeated data loaded with every field pooled ends up sharing its values and still equals what was parsed.
+     */
+    @Test
+    public void sharesRepeatedValues() throws IOException {
+        byte[] data = ParallelCompanyReaderTest.repeated(TestData.bytes(), 3);
+        List<Company> expected = new ArrayList<>();
+        new CompanyReader().forEach(new ByteArrayInputStream(data), expected::add);
+        Deduplicator deduplicator = new Deduplicator(EnumSet.allOf(Deduplicator.Field.class));
+
+        List<Company> companies = new ArrayList<>();
+        Deduplicator.Savings savings = new CompanyReader().forEach(new ByteArrayInputStream(data), deduplicator, companies::add);
+
+        assertThat(companies).isEqualTo(expected);
+        Company first = companies.get(0);
+        Company copy = companies.get(7);
+        assertThat(copy.getName()).isSameAs(first.getName());
+        assertThat(copy.getAbout()).isSameAs(first.getAbout());
+        assertThat(copy.getId()).isNotSameAs(first.getId());
+        Employee employee = first.getEmployees().get(0);
+        Employee employeeCopy = copy.getEmployees().get(0);
+        assertThat(employeeCopy.getHiredOn()).isSameAs(employee.getHiredOn());
+        assertThat(employeeCopy.getSalary()).isSameAs(employee.getSalary());
+        assertThat(employeeCopy.getName()).isSameAs(employee.getName());
+        assertThat(savings).isEqualTo(deduplicator.savings());
+        assertThat(savings.datesShared()).isGreaterThanOrEqualTo(2L * 74);
+        assertThat(savings.stringsShared()).isEqualTo(2L * (7 * 3 + 74 * 2));
+        assertThat(savings.savedBytes()).isGreaterThan(savings.datesShared() * 24);
+    }
+
+    /**
+     * By default only company names go through the pool, fields that are unique per record do not fill it.
+     */
+    @Test
+    public void poolsCompanyNamesByDefault() throws IOException {
+        byte[] data = ParallelCompanyReaderTest.repeated(TestData.bytes(), 2);
+        Deduplicator deduplicator = new Deduplicator();
+
+        List<Company> companies;
+        try(Stream<Company> stream = new CompanyReader().stream(new ByteArrayInputStream(data))){
+            companies = stream.map(deduplicator).toList();
+        }
+
+        Company first = companies.get(0);
+        Company copy = companies.get(7);
+        assertThat(copy.getName()).isSameAs(first.getName());
+        assertThat(copy.getAbout()).isNotSameAs(first.getAbout());
+        assertThat(copy.getEmployees().get(0).getPhone()).isNotSameAs(first.getEmployees().get(0).getPhone());
+        assertThat(deduplicator.savings().stringsShared()).isEqualTo(7);
+        assertThat(deduplicator.toString()).contains("strings=7");
+    }
+
+    @Test
+    public void staysWithinBounds(){
+        Deduplicator deduplicator = new Deduplicator(Set.of(), 1, 1);
+        LocalDate day = LocalDate.of(2020, 1, 1);
+
+        assertThat(deduplicator.string(new String("a"))).isEqualTo("a");
+        String b = new String("b");
+        assertThat(deduplicator.string(b)).isSameAs(b);
+        assertThat(deduplicator.string(new String("b"))).isNotSameAs(b);
+
+        assertThat(deduplicator.date(day)).isSameAs(day);
+        LocalDate other = day.plusDays(1);
+        assertThat(deduplicator.date(other)).isSameAs(other);
+        assertThat(deduplicator.date(LocalDate.of(2020, 1, 2))).isSameAs(other);
+        assertThat(deduplicator.date(LocalDate.of(2020, 1, 1))).isNotSameAs(day);
+        assertThat(deduplicator.savings().datesShared()).isEqualTo(1);
+
+        BigDecimal fraction = new BigDecimal("1.50");
+        assertThat(deduplicator.salary(fraction)).isSameAs(fraction);
+        BigDecimal ten = BigDecimal.valueOf(10_000);
+        assertThat(deduplicator.salary(ten)).isSameAs(ten);
+        assertThat(deduplicator.salary(new BigDecimal("10000"))).isSameAs(ten);
+        assertThat(deduplicator.salary(null)).isNull();
+    }
+
+    @Test
+    public void rejectsInvalidSizes(){
+        assertThatThrownBy(() -> new Deduplicator(Set.of(), 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Deduplicator(Set.of(), 10, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,119 @@
+package edu.wz.streamsapi.parse;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LazyCompanyTest {
+
+    private final CompanyReader companyReader = new CompanyReader();
+
+    @Test
+    public void equalsEagerlyReadCompanies() throws IOException {
+        byte[] data = TestData.bytes();
+        List<Company> expected = new ArrayList<>();
+        companyReader.forEach(new ByteArrayInputStream(data), expected::add);
+
+        List<Company> lazy = companyReader.readLazily(data);
+
+        assertThat(lazy).hasSize(7).allSatisfy(company -> assertThat(((LazyCompany) company).isMaterialized()).isFalse());
+        assertThat(lazy).isEqualTo(expected);
+        assertThat(lazy).allSatisfy(company -> assertThat(((LazyCompany) company).isMaterialized()).isTrue());
+    }
+
+    /**
+     * A mapped file, split into segments the employee arrays cross, gives the same companies as the bytes on the heap.
+     */
+    @Test
+    public void readsMappedFileLazily(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("data.json"), TestData.bytes());
+        List<Company> expected = TestData.companies();
+
+        List<Company> mapped = companyReader.readLazily(file);
+        List<Company> segmented = companyReader.readLazily(MappedFile.map(file, 7));
+
+        assertThat(mapped).allSatisfy(company -> assertThat(((LazyCompany) company).isMaterialized()).isFalse());
+        assertThat(mapped).isEqualTo(expected);
+        assertThat(segmented).isEqualTo(expected);
+    }
+
+    /**
+     * Deduplicating lazily read companies leaves their employees unparsed.
+     */
+    @Test
+    public void deduplicatorKeepsEmployeesUnparsed() throws IOException {
+        List<Company> companies = companyReader.readLazily(TestData.bytes());
+        Deduplicator deduplicator = new Deduplicator();
+
+        companies.forEach(deduplicator::apply);
+
+        assertThat(companies).allSatisfy(company -> assertThat(((LazyCompany) company).isMaterialized()).isFalse());
+        assertThat(deduplicator.savings().datesShared()).isZero();
+        assertThat(companies).isEqualTo(TestData.companies());
+    }
+
+    /**
+     * Company-level fields are there right away, the employees only once they are asked for.
+     */
+    @Test
+    public void parsesEmployeesOnFirstAccess() throws IOException {
+        List<Company> companies = companyReader.readLazily(TestData.bytes());
+        LazyCompany company = (LazyCompany) companies.get(0);
+
+        assertThat(companies).extracting(Company::getName).doesNotContainNull();
+        assertThat(companies).allSatisfy(c -> assertThat(c.getLatitude()).isNotZero());
+        assertThat(company.isMaterialized()).isFalse();
+
+        List<Employee> employees = company.getEmployees();
+        assertThat(employees).isNotEmpty().allSatisfy(employee -> assertThat(employee.getHiredOn()).isNotNull());
+        assertThat(company.getEmployees()).isSameAs(employees);
+        assertThat(((LazyCompany) companies.get(1)).isMaterialized()).isFalse();
+    }
+
+    @Test
+    public void settingEmployeesDropsUnparsedOnes() throws IOException {
+        LazyCompany company = (LazyCompany) companyReader.readLazily(TestData.bytes()).get(0);
+
+        company.setEmployees(List.of());
+
+        assertThat(company.isMaterialized()).isTrue();
+        assertThat(company.getEmployees()).isEmpty();
+    }
+
+    @Test
+    public void concurrentFirstAccessSeesOneList() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            Company company = companyReader.readLazily(TestData.bytes()).get(0);
+            CompletableFuture<List<Employee>> other = CompletableFuture.supplyAsync(company::getEmployees);
+            List<Employee> employees = company.getEmployees();
+            assertThat(other.get()).isSameAs(employees);
+        }
+    }
+
+    @Test
+    public void reportsBrokenEmployeesOnAccess() throws IOException {
+        String json = """
+                [{"_id": "c1", "employees": [{"_id": "e1"}, 42], "name": "Broken"}]""";
+
+        Company company = companyReader.readLazily(json.getBytes(StandardCharsets.UTF_8)).get(0);
+
+        assertThat(company.getName()).isEqualTo("Broken");
+        assertThatThrownBy(company::getEmployees).isInstanceOf(UncheckedIOException.class);
+        assertThatThrownBy(() -> companyReader.readLazily("[{\"employees\": 1}]".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IOException.class).hasMessageContaining("an array of employees expected");
+    }
+}
@@ -0,0 +1,94 @@
+package edu.wz.streamsapi.parse;
+
+import edu.wz.streamsapi.domain.Company;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MappedFileInputStreamTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Reading from the mapped file, from a plain stream and from a reader give the same companies.
+     */
+    @Test
+    public void mappedReadMatchesStreamRead() throws IOException {
+        Path file = copyOfData();
+        CompanyReader companyReader = new CompanyReader();
+
+        List<Company> expected = new ArrayList<>();
+        companyReader.forEach(Files.newInputStream(file), expected::add);
+        List<Company> viaMapping = new ArrayList<>();
+        companyReader.forEach(file, viaMapping::add);
+        List<Company> viaReader = new ArrayList<>();
+        try(Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)){
+            companyReader.forEach(reader, viaReader::add);
+        }
+        List<Company> viaStream;
+        try(Stream<Company> companies = companyReader.stream(file)){
+            viaStream = companies.toList();
+        }
+
+        assertThat(expected).hasSize(7);
+        assertThat(viaMapping).isEqualTo(expected);
+        assertThat(viaReader).isEqualTo(expected);
+        assertThat(viaStream).isEqualTo(expected);
+    }
+
+    /**
+     * Tiny segments force a remap in the middle of bulk reads, single byte reads and skips.
+     */
+    @Test
+    public void readsAcrossSegments() throws IOException {
+        Path file = copyOfData();
+        byte[] expected = Files.readAllBytes(file);
+
+        try(InputStream input = new MappedFileInputStream(file, 7)){
+            assertThat(input.readAllBytes()).isEqualTo(expected);
+            assertThat(input.read()).isEqualTo(-1);
+        }
+        try(InputStream input = new MappedFileInputStream(file, 7)){
+            assertThat(input.read()).isEqualTo(expected[0] & 0xFF);
+            assertThat(input.skip(100)).isEqualTo(100);
+            assertThat(input.read()).isEqualTo(expected[101] & 0xFF);
+            assertThat(input.available()).isEqualTo(expected.length - 102);
+            assertThat(input.skip(expected.length)).isEqualTo(expected.length - 102);
+            assertThat(input.available()).isZero();
+        }
+    }
+
+    @Test
+    public void handlesEmptyAndClosedFiles() throws IOException {
+        Path empty = Files.createFile(dir.resolve("empty.json"));
+        try(InputStream input = new MappedFileInputStream(empty)){
+            assertThat(input.read()).isEqualTo(-1);
+        }
+
+        InputStream input = new MappedFileInputStream(copyOfData());
+        input.close();
+        assertThatThrownBy(input::read).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new MappedFileInputStream(empty, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path copyOfData() throws IOException {
+        Path file = dir.resolve("data.json");
+        try(InputStream input = getClass().getClassLoader().getResourceAsStream("data.json")){
+            Files.copy(input, file);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,107 @@
+package edu.wz.streamsapi.parse;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParallelCompanyReaderTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp(){
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown(){
+        pool.shutdownNow();
+    }
+
+    /**
+     * Chunks as small as one company still come back in the original order, equal to a sequential read.
+     */
+    @Test
+    public void keepsOriginalOrder() throws IOException {
+        byte[] data = repeated(TestData.bytes(), 50);
+        List<Company> expected = new ArrayList<>();
+        new CompanyReader().forEach(new ByteArrayInputStream(data), expected::add);
+
+        assertThat(expected).hasSize(350);
+        assertThat(new ParallelCompanyReader(pool, 1).read(data)).isEqualTo(expected);
+        assertThat(new ParallelCompanyReader(pool, 64 * 1024).read(data)).isEqualTo(expected);
+    }
+
+    /**
+     * Braces, brackets and escaped quotes inside strings do not confuse the boundary snapping, not even a string
+     * that looks exactly like the gap between two companies.
+     */
+    @Test
+    public void findsBoundariesAroundTrickyStrings() throws IOException {
+        String tricky = """
+                {"_id": "c1", "name": "{[ \\"}]", "employees": [], "address": "a\\\\", "about": "}, {}, {", "latitude": 1, "longitude": 2}""";
+        String json = "﻿ [ " + tricky + " ,\n" + tricky.replace("c1", "c2") + "\t]";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        long falseStart = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("}, {}") + 3;
+        assertThat(ParallelCompanyReader.nextStart(ByteSource.of(bytes), 0, bytes.length)).isEqualTo(falseStart);
+        List<Company> companies = new ParallelCompanyReader(pool, 1).read(bytes);
+        assertThat(companies).extracting(Company::getId).containsExactly("c1", "c2");
+        assertThat(companies).extracting(Company::getName).containsOnly("{[ \"}]");
+        assertThat(companies).extracting(Company::getAddress).containsOnly("a\\");
+        assertThat(companies).extracting(Company::getAbout).containsOnly("}, {}, {");
+    }
+
+    /**
+     * A mapped file split into tiny segments is read with offsets that cross them, like the bytes on the heap.
+     */
+    @Test
+    public void readsMappedFileAcrossSegments(@TempDir Path dir) throws IOException {
+        Path file = Files.write(dir.resolve("data.json"), repeated(TestData.bytes(), 5));
+        List<Company> expected = new ArrayList<>();
+        new CompanyReader().forEach(file, expected::add);
+
+        assertThat(new ParallelCompanyReader(pool, 1000).read(MappedFile.map(file, 7))).isEqualTo(expected);
+        assertThat(new ParallelCompanyReader(pool, 1000).read(file)).isEqualTo(expected);
+    }
+
+    @Test
+    public void rejectsUnexpectedFormat(){
+        ParallelCompanyReader reader = new ParallelCompanyReader(pool, 1);
+
+        assertThat(catchThrowable(() -> reader.read("[]".getBytes(StandardCharsets.UTF_8)))).isNull();
+        assertThatThrownBy(() -> reader.read("{}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IOException.class).hasMessageContaining("an array of companies expected");
+        assertThatThrownBy(() -> reader.read("[{}, 42]".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IOException.class).hasMessageContaining("a company object expected");
+        assertThatThrownBy(() -> reader.read("[{}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IOException.class).hasMessageContaining("not closed");
+    }
+
+    /**
+     * The companies of the array repeated {@code times} times in one array.
+     */
+    static byte[] repeated(byte[] array, int times){
+        String json = new String(array, StandardCharsets.UTF_8).strip();
+        String companies = json.substring(1, json.length() - 1);
+        StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < times; i++) {
+            result.append(i == 0 ? "" : ",").append(companies);
+        }
+        return result.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
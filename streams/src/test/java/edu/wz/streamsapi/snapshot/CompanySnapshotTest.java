@@ -0,0 +1,120 @@
+package edu.wz.streamsapi.snapshot;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompanySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void roundTripsParsedData() throws IOException {
+        List<Company> companies = TestData.companies();
+        Path file = dir.resolve("companies.snapshot");
+
+        CompanySnapshot.write(companies, file);
+
+        assertThat(CompanySnapshot.read(file)).hasSize(7).isEqualTo(companies);
+    }
+
+    /**
+     * Nulls, fractional and negative scale salaries and companies without employees come back as they were.
+     */
+    @Test
+    public void roundTripsEdgeCases() throws IOException {
+        Employee empty = new Employee();
+        Employee full = new Employee("e1", "Zoë Ångström", 30, LocalDate.of(1970, 1, 1), "+1", new BigDecimal("1234.56"), Employee.Gender.OTHER);
+        Employee rounded = new Employee("e2", "", 41, LocalDate.of(1812, 6, 24), null, new BigDecimal("2E+3"), Employee.Gender.FEMALE);
+        List<Company> companies = List.of(
+                new Company("c1", null, new ArrayList<>(List.of(empty, full)), "", null, -1.5, 2.5),
+                new Company("c2", "No staff", new ArrayList<>(), "a", "b", 0, 0),
+                new Company("c3", "Last", new ArrayList<>(List.of(rounded)), "a", "b", 90, 180));
+
+        List<Company> read = CompanySnapshot.read(bytes(companies));
+
+        assertThat(read).isEqualTo(companies);
+        assertThat(read.get(2).getEmployees().get(0).getSalary().scale()).isEqualTo(-3);
+    }
+
+    /**
+     * A missing hire date stays null and the most extreme dates an int holds come back exactly, dates beyond them
+     * and the one reserved for null are rejected when writing.
+     */
+    @Test
+    public void roundTripsNullAndExtremeDates() throws IOException {
+        LocalDate first = LocalDate.ofEpochDay(Integer.MIN_VALUE + 1L);
+        LocalDate last = LocalDate.ofEpochDay(Integer.MAX_VALUE);
+        List<Company> companies = List.of(new Company("c1", "name", new ArrayList<>(List.of(
+                employee("none", null), employee("first", first), employee("last", last))), "a", "b", 1, 2));
+
+        List<Employee> read = CompanySnapshot.read(bytes(companies)).get(0).getEmployees();
+
+        assertThat(read).extracting(Employee::getHiredOn).containsExactly(null, first, last);
+        for (LocalDate rejected : List.of(first.minusDays(1), last.plusDays(1), LocalDate.MIN, LocalDate.MAX)) {
+            assertThatThrownBy(() -> bytes(List.of(new Company("c1", "name", List.of(employee("e", rejected)), "a", "b", 1, 2))))
+                    .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Hire date is out of range");
+        }
+    }
+
+    /**
+     * A file many times the read buffer, with values and a string longer than the buffer crossing its refills.
+     */
+    @Test
+    public void readsFilesLargerThanTheBuffer() throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            employees.add(new Employee("e" + i, "name " + i, i % 60, LocalDate.ofEpochDay(i), "+" + i, BigDecimal.valueOf(i, 2), Employee.Gender.MALE));
+        }
+        List<Company> companies = List.of(
+                new Company("c1", "Long", employees, "a", "x".repeat(200_000), 1, 2),
+                new Company("c2", "Short", new ArrayList<>(), "a", "b", 3, 4));
+        Path file = dir.resolve("large.snapshot");
+        CompanySnapshot.write(companies, file);
+
+        assertThat(Files.size(file)).isGreaterThan(10 * 64 * 1024);
+        assertThat(CompanySnapshot.read(file)).isEqualTo(companies);
+
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 1));
+        assertThatThrownBy(() -> CompanySnapshot.read(file))
+                .isInstanceOf(IOException.class).hasMessageContaining("truncated");
+    }
+
+    @Test
+    public void rejectsForeignAndTruncatedData() throws IOException {
+        byte[] snapshot = bytes(List.of(new Company("c1", "name", new ArrayList<>(List.of(new Employee())), "a", "b", 1, 2)));
+
+        assertThatThrownBy(() -> CompanySnapshot.read("[{}]".getBytes()))
+                .isInstanceOf(IOException.class).hasMessageContaining("not a company snapshot");
+        assertThatThrownBy(() -> CompanySnapshot.read(Arrays.copyOf(snapshot, snapshot.length - 1)))
+                .isInstanceOf(IOException.class).hasMessageContaining("truncated");
+        assertThatThrownBy(() -> bytes(List.of(new Company("c1", "name",
+                List.of(new Employee("e1", "n", 1, null, null, new BigDecimal("1E+300"), null)), "a", "b", 1, 2))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Employee employee(String id, LocalDate hiredOn){
+        return new Employee(id, id, 30, hiredOn, null, BigDecimal.ONE, null);
+    }
+
+    private static byte[] bytes(List<Company> companies) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CompanySnapshot.write(companies, output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,43 @@
+package edu.wz.streamsapi.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedHeapTest {
+
+    /**
+     * Keeps the largest values, tells which id dropped out and gives the kept ones back strongest first.
+     */
+    @Test
+    public void keepsTheStrongestIds(){
+        int[] values = {5, 1, 9, 7, 3, 9, 2};
+        BoundedHeap heap = new BoundedHeap(3, (a, b) -> values[a] < values[b] || (values[a] == values[b] && a > b));
+
+        assertThat(heap.offer(0)).isEqualTo(-1);
+        assertThat(heap.offer(1)).isEqualTo(-1);
+        assertThat(heap.offer(2)).isEqualTo(-1);
+        assertThat(heap.isFull()).isTrue();
+        assertThat(heap.weakest()).isEqualTo(1);
+        assertThat(heap.offer(3)).isEqualTo(1);
+        assertThat(heap.offer(4)).isEqualTo(4);
+        assertThat(heap.offer(5)).isEqualTo(0);
+        assertThat(heap.offer(6)).isEqualTo(6);
+
+        assertThat(heap.drain()).containsExactly(2, 5, 3);
+        assertThat(heap.size()).isZero();
+        assertThatThrownBy(heap::weakest).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void handlesZeroCapacity(){
+        BoundedHeap heap = new BoundedHeap(0, (a, b) -> a < b);
+
+        assertThat(heap.offer(7)).isEqualTo(7);
+        assertThat(heap.isFull()).isTrue();
+        assertThat(heap.drain()).isEmpty();
+        assertThatThrownBy(() -> new BoundedHeap(-1, (a, b) -> a < b)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
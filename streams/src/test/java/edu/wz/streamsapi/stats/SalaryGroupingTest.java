@@ -0,0 +1,99 @@
+package edu.wz.streamsapi.stats;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SalaryGroupingTest {
+
+    private static final Dimension<Employee.Gender> GENDER = Dimension.of(Employee.Gender.class, Employee::getGender);
+
+    private List<Company> companies;
+
+    @BeforeEach
+    void init() throws IOException {
+        companies = TestData.companies();
+    }
+
+    /**
+     * One pass gives the same groups as one filtered stream per value, sequentially and in parallel.
+     */
+    @Test
+    public void matchesFilteredStreams(){
+        Dimension<Boolean> senior = Dimension.of(List.of(true, false), employee -> employee.getAge() >= 30);
+        Dimension<Map.Entry<Employee.Gender, Boolean>> genderAndSeniority = Dimension.cross(GENDER, senior);
+        List<Employee> employees = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+
+        Map<Map.Entry<Employee.Gender, Boolean>, SalaryStatistics> sequential = employees.stream()
+                .collect(SalaryGrouping.by(genderAndSeniority));
+        Map<Map.Entry<Employee.Gender, Boolean>, SalaryStatistics> parallel = employees.parallelStream()
+                .collect(SalaryGrouping.by(genderAndSeniority));
+
+        assertThat(sequential).hasSize(6).containsOnlyKeys(parallel.keySet());
+        sequential.forEach((key, statistics) -> {
+            SalaryStatistics expected = employees.stream()
+                    .filter(e -> e.getGender() == key.getKey() && (e.getAge() >= 30) == key.getValue())
+                    .collect(SalaryStatistics.summarizing(Employee::getSalary));
+            assertThat(statistics.getCount()).isEqualTo(expected.getCount());
+            assertThat(statistics.getAverage()).isEqualTo(expected.getAverage());
+            assertThat(parallel.get(key).getSum()).isEqualTo(expected.getSum());
+        });
+    }
+
+    @Test
+    public void groupsPerCompanyIntoEnumMaps(){
+        Map<String, Map<Employee.Gender, SalaryStatistics>> result = companies.parallelStream()
+                .collect(SalaryGrouping.perCompany(GENDER));
+
+        assertThat(result.keySet()).containsExactlyElementsOf(companies.stream().map(Company::getId).toList());
+        assertThat(result.values()).allSatisfy(groups -> assertThat(groups).isInstanceOf(EnumMap.class).hasSize(3));
+        for (Company company : companies) {
+            long count = result.get(company.getId()).values().stream().mapToLong(SalaryStatistics::getCount).sum();
+            assertThat(count).isEqualTo(company.getEmployees().size());
+        }
+    }
+
+    /**
+     * Companies sharing an id are merged, also when they sit in different parallel splits.
+     */
+    @Test
+    public void mergesCompaniesWithTheSameId(){
+        List<Company> duplicated = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            duplicated.add(new Company("c" + i % 2, "n", List.of(employee(Employee.Gender.MALE, 10), employee(Employee.Gender.OTHER, 20)), "a", "b", 0, 0));
+        }
+
+        Map<String, Map<Employee.Gender, SalaryStatistics>> result = duplicated.parallelStream().collect(SalaryGrouping.perCompany(GENDER));
+
+        assertThat(result).containsOnlyKeys("c0", "c1");
+        assertThat(result.get("c0").get(Employee.Gender.MALE).getSum()).isEqualTo(BigDecimal.valueOf(5000));
+        assertThat(result.get("c1").get(Employee.Gender.OTHER).getCount()).isEqualTo(500);
+        assertThat(result.get("c1").get(Employee.Gender.FEMALE).getAverage()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    public void rejectsUnknownAndDuplicateKeys(){
+        Dimension<Integer> age = Dimension.of(List.of(20, 30), Employee::getAge);
+
+        assertThatThrownBy(() -> List.of(employee(Employee.Gender.MALE, 1)).stream().collect(SalaryGrouping.by(age)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Dimension.of(List.of(1, 1), Employee::getAge)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Employee employee(Employee.Gender gender, int salary){
+        return new Employee("e", "n", 25, LocalDate.of(2020, 1, 1), "p", BigDecimal.valueOf(salary), gender);
+    }
+}
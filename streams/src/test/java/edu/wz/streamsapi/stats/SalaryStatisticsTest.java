@@ -0,0 +1,87 @@
+package edu.wz.streamsapi.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SalaryStatisticsTest {
+
+    /**
+     * Same average as summing BigDecimals and dividing half up, sequentially and in parallel.
+     */
+    @Test
+    public void matchesBigDecimalAverage(){
+        Random random = new Random(42);
+        List<BigDecimal> salaries = LongStream.range(0, 100_000)
+                .map(i -> 10_000 + random.nextInt(40_000))
+                .mapToObj(BigDecimal::valueOf)
+                .toList();
+        BigDecimal total = salaries.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal expected = total.divide(BigDecimal.valueOf(salaries.size()), RoundingMode.HALF_UP);
+
+        SalaryStatistics sequential = salaries.stream().collect(SalaryStatistics.salaryStatistics());
+        SalaryStatistics parallel = salaries.parallelStream().collect(SalaryStatistics.salaryStatistics());
+
+        for (SalaryStatistics statistics : List.of(sequential, parallel)) {
+            assertThat(statistics.getCount()).isEqualTo(salaries.size());
+            assertThat(statistics.getSum()).isEqualTo(total);
+            assertThat(statistics.getAverage()).isEqualTo(expected);
+            assertThat(statistics.getMin()).isEqualTo(salaries.stream().min(BigDecimal::compareTo).orElseThrow());
+            assertThat(statistics.getMax()).isEqualTo(salaries.stream().max(BigDecimal::compareTo).orElseThrow());
+        }
+        assertThat(parallel.getVariance()).isCloseTo(sequential.getVariance(), withinPercentage(1e-9));
+    }
+
+    @Test
+    public void computesVariance(){
+        SalaryStatistics statistics = new SalaryStatistics();
+        LongStream.of(2, 4, 4, 4, 5, 5, 7, 9).forEach(statistics);
+
+        SalaryStatistics left = new SalaryStatistics();
+        SalaryStatistics right = new SalaryStatistics();
+        LongStream.of(2, 4, 4).forEach(left);
+        LongStream.of(4, 5, 5, 7, 9).forEach(right);
+
+        assertThat(statistics.getVariance()).isCloseTo(4, within(1e-12));
+        assertThat(statistics.getStandardDeviation()).isCloseTo(2, within(1e-12));
+        assertThat(left.combine(right).getVariance()).isCloseTo(4, within(1e-12));
+        assertThat(left.getAverage()).isEqualTo(BigDecimal.valueOf(5));
+    }
+
+    /**
+     * Rounds half up like the old BigDecimal averaging and keeps its zero for no salaries.
+     */
+    @Test
+    public void roundsHalfUpAndHandlesEmpty(){
+        SalaryStatistics statistics = new SalaryStatistics();
+        assertThat(statistics.getAverage()).isEqualTo(BigDecimal.ZERO);
+        assertThat(statistics.getMin()).isNull();
+        assertThat(statistics.getVariance()).isZero();
+
+        statistics.accept(1);
+        statistics.accept(2);
+        assertThat(statistics.getAverage()).isEqualTo(BigDecimal.valueOf(2));
+        statistics.accept(-10);
+        assertThat(statistics.getAverage()).isEqualTo(BigDecimal.valueOf(-2));
+        assertThat(statistics.combine(new SalaryStatistics()).getCount()).isEqualTo(3);
+        assertThat(new SalaryStatistics().combine(statistics).getMin()).isEqualTo(BigDecimal.valueOf(-10));
+    }
+
+    @Test
+    public void rejectsOverflowAndFractions(){
+        SalaryStatistics statistics = new SalaryStatistics();
+        statistics.accept(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> statistics.accept(1)).isInstanceOf(ArithmeticException.class);
+        assertThat(statistics.getSum()).isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE));
+        assertThat(statistics.getCount()).isEqualTo(1);
+        assertThatThrownBy(() -> new SalaryStatistics().accept(new BigDecimal("10.5"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> statistics.combine(statistics)).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.wz.streamsapi.stats;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TopKTest {
+
+    /**
+     * Same rows in the same order as sorting and limiting, ties included, sequentially and in parallel.
+     */
+    @Test
+    public void matchesSortAndLimit() throws IOException {
+        List<Company> companies = TestData.companies();
+        List<Employee> employees = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+        List<Comparator<Employee>> comparators = List.of(
+                Comparator.comparing(Employee::getHiredOn).reversed(),
+                Comparator.comparing(Employee::getSalary).reversed(),
+                Comparator.comparingInt(Employee::getAge));
+
+        for (Comparator<Employee> comparator : comparators) {
+            for (int k : new int[]{0, 1, 10, employees.size(), employees.size() + 1}) {
+                List<Employee> expected = employees.stream().sorted(comparator).limit(k).toList();
+                assertThat(employees.stream().collect(TopK.of(k, comparator))).containsExactlyElementsOf(expected);
+                assertThat(employees.parallelStream().collect(TopK.of(k, comparator))).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    /**
+     * Many equal keys spread across parallel splits still come back in encounter order.
+     */
+    @Test
+    public void keepsEncounterOrderOfTies(){
+        List<int[]> values = IntStream.range(0, 100_000).mapToObj(i -> new int[]{i % 7, i}).toList();
+        Comparator<int[]> byKey = Comparator.comparingInt(value -> value[0]);
+
+        List<int[]> top = values.parallelStream().collect(TopK.of(50, byKey));
+
+        assertThat(top).extracting(value -> value[1])
+                .containsExactlyElementsOf(IntStream.range(0, 50).map(i -> i * 7).boxed().toList());
+    }
+
+    @Test
+    public void rejectsNegativeK(){
+        assertThatThrownBy(() -> TopK.of(-1, Comparator.naturalOrder())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
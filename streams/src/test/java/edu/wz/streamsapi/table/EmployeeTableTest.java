@@ -0,0 +1,132 @@
+package edu.wz.streamsapi.table;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EmployeeTableTest {
+
+    private List<Company> companies;
+
+    private EmployeeTable table;
+
+    @BeforeEach
+    void init() throws IOException {
+        companies = TestData.companies();
+        table = EmployeeTable.of(companies);
+    }
+
+    @Test
+    public void keepsEveryEmployeeInCompanyOrder(){
+        List<Employee> employees = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+
+        assertThat(table.size()).isEqualTo(employees.size());
+        assertThat(table.companyCount()).isEqualTo(companies.size());
+        for (int row = 0; row < table.size(); row++) {
+            Employee employee = employees.get(row);
+            assertThat(table.employee(row)).isSameAs(employee);
+            assertThat(table.age(row)).isEqualTo(employee.getAge());
+            assertThat(table.hiredOn(row)).isEqualTo(employee.getHiredOn());
+            assertThat(table.gender(row)).isEqualTo(employee.getGender());
+            assertThat(BigDecimal.valueOf(table.salaryCents(row), 2)).isEqualByComparingTo(employee.getSalary());
+            assertThat(companies.get(table.companyIndex(row)).getEmployees()).contains(employee);
+        }
+    }
+
+    @Test
+    public void scansMatchStreams(){
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2021, 12, 31);
+        List<Employee> employees = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+
+        assertThat(table.countHiredBetween(from, to)).isEqualTo(employees.stream()
+                .filter(e -> !e.getHiredOn().isBefore(from) && !e.getHiredOn().isAfter(to)).count());
+        assertThat(table.count(row -> table.age(row) > 30)).isEqualTo(employees.stream().filter(e -> e.getAge() > 30).count());
+        assertThat(BigDecimal.valueOf(table.totalSalaryCents(), 2))
+                .isEqualByComparingTo(employees.stream().map(Employee::getSalary).reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    public void groupsMatchStreams(){
+        EmployeeTable.SalaryGroups byCompany = table.salariesByCompany();
+        EmployeeTable.SalaryGroups byCompanyAndGender = table.salariesByCompanyAndGender();
+
+        for (int i = 0; i < companies.size(); i++) {
+            Company company = companies.get(i);
+            assertThat(table.companyId(i)).isEqualTo(company.getId());
+            assertThat(byCompany.count(i)).isEqualTo(company.getEmployees().size());
+            assertThat(byCompany.average(i)).isEqualByComparingTo(average(company.getEmployees()));
+            for (Employee.Gender gender : Employee.Gender.values()) {
+                List<Employee> ofGender = company.getEmployees().stream().filter(e -> e.getGender() == gender).toList();
+                int group = EmployeeTable.group(i, gender);
+                assertThat(byCompanyAndGender.count(group)).isEqualTo(ofGender.size());
+                assertThat(byCompanyAndGender.average(group)).isEqualByComparingTo(average(ofGender));
+            }
+        }
+    }
+
+    /**
+     * Same rows in the same order as a stable sort, ties included.
+     */
+    @Test
+    public void topNMatchesSorting(){
+        List<Employee> employees = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+        List<Employee> newest = employees.stream().sorted(Comparator.comparing(Employee::getHiredOn).reversed()).limit(10).toList();
+        List<Employee> bestPaid = employees.stream().sorted(Comparator.comparing(Employee::getSalary).reversed()).limit(25).toList();
+
+        assertThat(Arrays.stream(table.newest(10)).mapToObj(table::employee)).containsExactlyElementsOf(newest);
+        assertThat(Arrays.stream(table.bestPaid(25)).mapToObj(table::employee)).containsExactlyElementsOf(bestPaid);
+        assertThat(table.newest(table.size() + 5)).hasSize(table.size());
+        assertThat(table.newest(0)).isEmpty();
+    }
+
+    @Test
+    public void handlesTies(){
+        LocalDate day = LocalDate.of(2022, 1, 1);
+        List<Employee> staff = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            staff.add(new Employee("e" + i, "n", 20, i % 2 == 0 ? day : day.minusDays(1), "p", BigDecimal.TEN, Employee.Gender.OTHER));
+        }
+        EmployeeTable ties = EmployeeTable.of(List.of(new Company("c", "n", staff, "a", "b", 0, 0)));
+
+        assertThat(ties.newest(4)).containsExactly(0, 2, 4, 1);
+        assertThat(ties.bestPaid(3)).containsExactly(0, 1, 2);
+    }
+
+    /**
+     * Salary totals fail instead of wrapping around, the same as {@link edu.wz.streamsapi.stats.SalaryStatistics}.
+     */
+    @Test
+    public void totalsDoNotOverflow(){
+        BigDecimal huge = BigDecimal.valueOf(Long.MAX_VALUE / 2, 2);
+        List<Employee> staff = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            staff.add(new Employee("e" + i, "n", 20, LocalDate.of(2022, 1, 1), "p", huge, Employee.Gender.OTHER));
+        }
+        EmployeeTable table = EmployeeTable.of(List.of(new Company("c", "n", staff, "a", "b", 0, 0)));
+
+        assertThatThrownBy(table::totalSalaryCents).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(table::salariesByCompany).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(table::salariesByCompanyAndGender).isInstanceOf(ArithmeticException.class);
+    }
+
+    private static BigDecimal average(List<Employee> employees){
+        if(employees.isEmpty()) return BigDecimal.ZERO;
+        return employees.stream().map(Employee::getSalary).reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2).divide(BigDecimal.valueOf(employees.size()), RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,128 @@
+package edu.wz.streamsapi.view;
+
+import edu.wz.streamsapi.TestData;
+import edu.wz.streamsapi.domain.Company;
+import edu.wz.streamsapi.domain.Employee;
+import edu.wz.streamsapi.stats.SalaryStatistics;
+import edu.wz.streamsapi.stats.TopK;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EmployeeAggregatesViewTest {
+
+    private List<Company> companies;
+
+    @BeforeEach
+    void init() throws IOException {
+        companies = TestData.companies();
+    }
+
+    @Test
+    public void matchesRecomputationAfterLoading(){
+        EmployeeAggregatesView view = EmployeeAggregatesView.of(companies);
+
+        assertMatchesRecomputation(view);
+    }
+
+    /**
+     * Random removals, updates and additions, after every change the view equals a full recomputation.
+     */
+    @Test
+    public void staysInSyncWithRandomChanges(){
+        EmployeeAggregatesView view = EmployeeAggregatesView.of(companies);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 300; i++) {
+            Company company = companies.get(random.nextInt(companies.size()));
+            List<Employee> employees = company.getEmployees();
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if(employees.isEmpty()) continue;
+                    Employee removed = employees.remove(random.nextInt(employees.size()));
+                    assertThat(view.removeEmployee(removed.getId())).isTrue();
+                }
+                case 1 -> {
+                    if(employees.isEmpty()) continue;
+                    Employee employee = employees.get(random.nextInt(employees.size()));
+                    employee.setAge(18 + random.nextInt(50));
+                    employee.setSalary(BigDecimal.valueOf(10_000 + random.nextInt(40_000)));
+                    employee.setHiredOn(LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000)));
+                    employee.setGender(Employee.Gender.values()[random.nextInt(3)]);
+                    assertThat(view.updateEmployee(employee)).isTrue();
+                }
+                default -> {
+                    Employee added = new Employee("new" + i, "name", 18 + random.nextInt(50),
+                            LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000)), "phone",
+                            BigDecimal.valueOf(10_000 + random.nextInt(40_000)), Employee.Gender.values()[random.nextInt(3)]);
+                    employees.add(added);
+                    view.addEmployee(company.getId(), added);
+                }
+            }
+            assertMatchesRecomputation(view);
+        }
+    }
+
+    @Test
+    public void removesCompanies(){
+        EmployeeAggregatesView view = EmployeeAggregatesView.of(companies);
+        Company removed = companies.remove(0);
+
+        assertThat(view.removeCompany(removed.getId())).isTrue();
+        assertThat(view.removeCompany(removed.getId())).isFalse();
+        assertThat(view.averageSalary(removed.getId())).isEqualTo(BigDecimal.ZERO);
+        assertThat(view.oldest(removed.getId())).isEmpty();
+        assertMatchesRecomputation(view);
+    }
+
+    @Test
+    public void rejectsInvalidChangesWithoutSideEffects(){
+        EmployeeAggregatesView view = EmployeeAggregatesView.of(companies);
+        Employee existing = companies.get(0).getEmployees().get(0);
+        Employee fractional = new Employee("x", "name", 30, LocalDate.now(), "phone", new BigDecimal("1.5"), Employee.Gender.MALE);
+
+        assertThatThrownBy(() -> view.addEmployee("c", existing)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> view.addEmployee("c", fractional)).isInstanceOf(ArithmeticException.class);
+        assertThat(view.removeEmployee("missing")).isFalse();
+        assertThat(view.updateEmployee(fractional)).isFalse();
+        assertThatThrownBy(() -> view.newest(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertMatchesRecomputation(view);
+    }
+
+    private void assertMatchesRecomputation(EmployeeAggregatesView view){
+        List<Employee> all = companies.stream().map(Company::getEmployees).flatMap(Collection::stream).toList();
+        Comparator<Employee> newestFirst = Comparator.comparing(Employee::getHiredOn).reversed();
+
+        assertThat(view.size()).isEqualTo(all.size());
+        for (Company company : companies) {
+            assertThat(view.averageSalary(company.getId())).isEqualTo(average(company.getEmployees(), null));
+            assertThat(view.oldest(company.getId()).map(Employee::getAge))
+                    .isEqualTo(company.getEmployees().stream().map(Employee::getAge).max(Integer::compare));
+            for (Employee.Gender gender : Employee.Gender.values()) {
+                assertThat(view.averageSalary(company.getId(), gender)).isEqualTo(average(company.getEmployees(), gender));
+            }
+        }
+        for (Employee.Gender gender : Employee.Gender.values()) {
+            assertThat(view.averageSalary(gender)).isEqualTo(average(all, gender));
+        }
+        assertThat(view.oldest().map(Employee::getAge)).isEqualTo(all.stream().map(Employee::getAge).max(Integer::compare));
+        assertThat(view.newest(10)).extracting(Employee::getHiredOn)
+                .containsExactlyElementsOf(all.stream().collect(TopK.of(10, newestFirst)).stream().map(Employee::getHiredOn).toList());
+    }
+
+    private static BigDecimal average(List<Employee> employees, Employee.Gender gender){
+        return employees.stream()
+                .filter(employee -> gender == null || employee.getGender() == gender)
+                .collect(SalaryStatistics.summarizing(Employee::getSalary))
+                .getAverage();
+    }
+}